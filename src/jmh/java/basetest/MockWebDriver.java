@@ -0,0 +1,91 @@
+package basetest;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Driver sin navegador para los benchmarks: solo devuelve screenshots sintéticos.
+ * Cualquier otra interacción con la página no está soportada.
+ */
+public class MockWebDriver implements WebDriver, TakesScreenshot {
+    private final byte[] screenshot;
+
+    public MockWebDriver(byte[] screenshot) {
+        this.screenshot = screenshot;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(screenshot);
+    }
+
+    @Override
+    public void get(String url) {
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return "about:blank";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Mock page";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new NoSuchElementException("MockWebDriver has no elements: " + by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return "<html></html>";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton("mock");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "mock";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException("MockWebDriver does not support switchTo");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("MockWebDriver does not support navigate");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("MockWebDriver does not support manage");
+    }
+}
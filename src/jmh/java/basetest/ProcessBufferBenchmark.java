@@ -0,0 +1,83 @@
+package basetest;
+
+import com.aventstack.extentreports.ExtentTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ExtentManager;
+import utils.SyntheticScreenshots;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de BaseTest.processBuffer para cada BufferAction con N steps en el buffer.
+ * Los steps se capturan con un MockWebDriver antes de cada invocación, así que solo
+ * se mide el vaciado del buffer (HTML de screenshots, timing y logs en el reporte).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessBufferBenchmark {
+
+    @Param({"COMMIT_SUCCESS", "COMMIT_WITH_FAILURE", "COMMIT_MERGED_FAILURE", "DISCARD_AND_FAIL"})
+    public BaseTest.BufferAction action;
+
+    @Param({"5", "50"})
+    public int bufferedSteps;
+
+    @Param({"true", "false"})
+    public boolean screenshots;
+
+    @Param({"1366x768"})
+    public String imageSize;
+
+    private ExtentTest test;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        String projectDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", Paths.get(projectDir, "target", "jmh-reports", "process-buffer").toString());
+        System.setProperty("step.timing.export", "false");
+        BaseTest.attachDriver(new MockWebDriver(SyntheticScreenshots.png(imageSize, 0)));
+    }
+
+    @Setup(Level.Invocation)
+    public void fillBuffer() {
+        test = ExtentManager.createTest("ProcessBufferBenchmark", action.name());
+        for (int i = 0; i < bufferedSteps; i++) {
+            BaseTest.createStep("Buffered step " + i, true, screenshots, BaseTest.StepMode.BUFFER);
+        }
+    }
+
+    @Benchmark
+    public void processBuffer() {
+        BaseTest.processBuffer(action, "Validation failed", screenshots);
+    }
+
+    @TearDown(Level.Invocation)
+    public void discardTest() {
+        // Mantiene el modelo y los timings acotados entre invocaciones
+        test.getExtent().removeTest(test);
+        StepTimingRecorder.export("ProcessBufferBenchmark");
+        ExtentManager.removeTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        BaseTest.detachDriver();
+    }
+}
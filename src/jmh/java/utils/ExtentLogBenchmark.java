@@ -0,0 +1,106 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de ExtentTest.log, directo, a través de ExtentManager.log (con el lock del reporte)
+ * y encolado en un ReportLogQueue (report.log.async=true).
+ * El test se renueva en cada iteración para que la lista de logs no crezca sin límite.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtentLogBenchmark {
+
+    @Param({"80", "2000"})
+    public int detailsLength;
+
+    private ExtentReports reports;
+    private ExtentTest test;
+    private String details;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        reports = new ExtentReports();
+        StringBuilder text = new StringBuilder();
+        while (text.length() < detailsLength) {
+            text.append("Step <b>clicked</b> element #login-button. ");
+        }
+        details = text.substring(0, detailsLength);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        if (test != null) {
+            reports.removeTest(test);
+        }
+        test = reports.createTest("ExtentLogBenchmark", "log throughput");
+    }
+
+    @Benchmark
+    public ExtentTest extentTestLog() {
+        return test.log(Status.PASS, details);
+    }
+
+    @Benchmark
+    public void extentManagerLog() {
+        ExtentManager.log(test, Status.PASS, details);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void extentManagerLogContended() {
+        ExtentManager.log(test, Status.PASS, details);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void reportLogQueueContended(SharedQueue shared) {
+        shared.queue.submit(test, Status.PASS, details);
+    }
+
+    /**
+     * Cola compartida por todos los hilos, como la de ExtentManager
+     */
+    @State(Scope.Benchmark)
+    public static class SharedQueue {
+        private final Object lock = new Object();
+        private ReportLogQueue queue;
+
+        @Setup(Level.Trial)
+        public void start() {
+            queue = new ReportLogQueue(1000, lock);
+        }
+
+        @TearDown(Level.Iteration)
+        public void drain() {
+            queue.drain(30_000);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            queue.shutdown(30_000);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de ExtentManager.flushReport con miles de tests en el modelo.
+ * Spark vuelve a renderizar el reporte completo en cada flush, así que el tiempo
+ * crece con el número de tests y de logs por test.
+ * Cada fork usa su propio directorio de reportes en target/jmh-reports/&lt;tests&gt;.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlushReportBenchmark {
+
+    @Param({"1000", "5000"})
+    public int tests;
+
+    @Param({"10"})
+    public int stepsPerTest;
+
+    @Setup
+    public void setUp() {
+        String projectDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", Paths.get(projectDir, "target", "jmh-reports", String.valueOf(tests)).toString());
+        ExtentManager.createInstance();
+
+        for (int i = 0; i < tests; i++) {
+            ExtentTest test = ExtentManager.createTest("Test " + i, "Synthetic test for flush benchmark");
+            for (int step = 0; step < stepsPerTest; step++) {
+                ExtentManager.log(test, Status.PASS, "Step " + step + " of test " + i
+                        + "<div style='color:#999;font-size:11px'>⏱ 120 ms · action 80 ms · screenshot 40 ms</div>");
+            }
+            if (i % 10 == 0) {
+                ExtentManager.log(test, Status.FAIL, "Assertion failed on step " + stepsPerTest);
+            }
+            ExtentManager.completeTest(test);
+        }
+        ExtentManager.removeTest();
+    }
+
+    @Benchmark
+    public void flushReport() {
+        ExtentManager.flushReport();
+    }
+}
@@ -0,0 +1,67 @@
+package utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de convertir un screenshot en el HTML del step.
+ * - unique: cada invocación recibe una captura distinta (hash, codificación y base64 completos)
+ * - duplicate: siempre la misma captura (camino de deduplicación del ScreenshotStore)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotHtmlBenchmark {
+
+    @Param({"1366x768", "1920x1080"})
+    public String imageSize;
+
+    private byte[] duplicatePng;
+    private String duplicateBase64;
+    private byte[] uniquePng;
+    private int variant;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        duplicatePng = SyntheticScreenshots.png(imageSize, -1);
+        duplicateBase64 = Base64.getEncoder().encodeToString(duplicatePng);
+        // Carga la configuración y registra la primera aparición fuera de la medición
+        ScreenshotUtils.generateScreenshotHtml(duplicatePng, "success", "warm-up");
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        uniquePng = SyntheticScreenshots.png(imageSize, variant++);
+    }
+
+    @Benchmark
+    public String uniqueBytes() {
+        return ScreenshotUtils.generateScreenshotHtml(uniquePng, "success", "Unique screenshot");
+    }
+
+    @Benchmark
+    public String duplicateBytes() {
+        return ScreenshotUtils.generateScreenshotHtml(duplicatePng, "success", "Duplicate screenshot");
+    }
+
+    @Benchmark
+    public String duplicateBase64() {
+        return ScreenshotUtils.generateScreenshotHtml(duplicateBase64, "error", "Duplicate screenshot");
+    }
+}
@@ -0,0 +1,64 @@
+package utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Genera capturas PNG sintéticas para los benchmarks.
+ * Imitan una página real (cabecera, bloques de contenido y texto) para que el coste
+ * de decodificar, escalar y recodificar sea comparable al de un screenshot del driver.
+ */
+public class SyntheticScreenshots {
+
+    /**
+     * @param size    Tamaño en formato "anchoxalto", p. ej. "1920x1080"
+     * @param variant Cambia el contenido para obtener imágenes distintas (evita la deduplicación)
+     */
+    public static byte[] png(String size, int variant) {
+        String[] parts = size.toLowerCase().split("x");
+        return png(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), variant);
+    }
+
+    public static byte[] png(int width, int height, int variant) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        Random random = new Random(variant);
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+
+            graphics.setColor(new Color(0x2c3e50));
+            graphics.fillRect(0, 0, width, Math.max(40, height / 12));
+
+            int blockHeight = Math.max(20, height / 20);
+            for (int y = height / 10; y < height - blockHeight; y += blockHeight + 10) {
+                int x = 20 + random.nextInt(Math.max(1, width / 10));
+                graphics.setColor(new Color(random.nextInt(0xffffff)));
+                graphics.fillRect(x, y, Math.max(10, random.nextInt(Math.max(1, width - x))), blockHeight / 2);
+            }
+
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+            for (int y = height / 10 + 30; y < height; y += 24) {
+                graphics.drawString("Lorem ipsum dolor sit amet " + variant + " " + random.nextLong(), 24, y);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
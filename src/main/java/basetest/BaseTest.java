@@ -1,8 +1,9 @@
 package basetest;
 
 import com.aventstack.extentreports.Status;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -11,9 +12,17 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import pages.ElementCache;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 import utils.ConfigReader;
 import utils.ExtentManager;
+import utils.FailedTestRerunner;
+import utils.RetryAnalyzer;
+import utils.ScreenshotPipeline;
+import utils.ScreenshotSimilarity;
+import utils.ScreenshotStore;
 import utils.ScreenshotUtils;
 
 // Importar logger
@@ -24,6 +33,9 @@ import java.io.File;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 @Listeners(utils.ExtentTestListener.class)
 public class BaseTest {
@@ -32,6 +44,9 @@ public class BaseTest {
 
     private static ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
     private static ThreadLocal<List<PendingStep>> pendingStepsThreadLocal = new ThreadLocal<>();
+    private static ThreadLocal<Long> stepMarkThreadLocal = ThreadLocal.withInitial(System::currentTimeMillis);
+    private static ThreadLocal<ITestContext> testContextThreadLocal = new ThreadLocal<>();
+    private static ThreadLocal<ITestResult> testResultThreadLocal = new ThreadLocal<>();
 
     // Browser options constants
     private static final String HEADLESS_ARG = "--headless";
@@ -39,6 +54,7 @@ public class BaseTest {
     private static final String DISABLE_DEV_SHM_ARG = "--disable-dev-shm-usage";
     private static final String DISABLE_WEB_SECURITY_ARG = "--disable-web-security";
     private static final String DISABLE_VIZ_COMPOSITOR_ARG = "--disable-features=VizDisplayCompositor";
+    private static final String DEFAULT_BASE_URL = "https://automationexercise.com";
 
     public enum StepMode {
         BUFFER,     // Add to buffer
@@ -58,12 +74,34 @@ public class BaseTest {
         private final boolean isPassed;
         private final boolean takeScreenshot;
         private final String screenshotBase64;
+        private final Future<String> screenshotHtml;
+        private final StepTiming timing;
 
         public PendingStep(String description, boolean isPassed, boolean takeScreenshot) {
+            this(description, isPassed, takeScreenshot, -1);
+        }
+
+        public PendingStep(String description, boolean isPassed, boolean takeScreenshot, long actionMillis) {
             this.description = description;
             this.isPassed = isPassed;
             this.takeScreenshot = takeScreenshot;
-            this.screenshotBase64 = takeScreenshot && getDriverSafe() != null ? captureScreenshotAsBase64() : null;
+            this.timing = startTiming(description, isPassed, actionMillis);
+            long captureStart = System.currentTimeMillis();
+
+            boolean capture = takeScreenshot && getDriverSafe() != null;
+            // The perceptual check decodes the PNG, so it also runs on the pipeline workers
+            if (capture && (ScreenshotPipeline.isEnabled() || ScreenshotSimilarity.isEnabled())) {
+                // Only the browser round-trip happens here; comparison and encoding run on the pipeline workers
+                byte[] screenshotBytes = captureScreenshotAsBytes();
+                this.screenshotBase64 = null;
+                this.screenshotHtml = screenshotBytes != null
+                        ? ScreenshotPipeline.submit(screenshotBytes, isPassed ? "success" : "error", description)
+                        : null;
+            } else {
+                this.screenshotBase64 = capture ? captureScreenshotAsBase64() : null;
+                this.screenshotHtml = null;
+            }
+            finishTiming(timing, capture ? System.currentTimeMillis() - captureStart : 0);
         }
 
         private String captureScreenshotAsBase64() {
@@ -78,6 +116,18 @@ public class BaseTest {
             return null;
         }
 
+        private byte[] captureScreenshotAsBytes() {
+            try {
+                WebDriver driver = getDriverSafe();
+                if (driver != null) {
+                    return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                }
+            } catch (Exception e) {
+                logger.error("Error capturing screenshot: {}", e.getMessage());
+            }
+            return null;
+        }
+
         public String getDescription() {
             return description;
         }
@@ -93,6 +143,21 @@ public class BaseTest {
         public String getScreenshotBase64() {
             return screenshotBase64;
         }
+
+        public Future<String> getScreenshotHtml() {
+            return screenshotHtml;
+        }
+
+        public StepTiming getTiming() {
+            return timing;
+        }
+
+        /**
+         * Cancels pending screenshot encoding for a step that will not be written
+         */
+        public void discard() {
+            ScreenshotPipeline.discard(screenshotHtml);
+        }
     }
 
     @BeforeSuite
@@ -113,52 +178,192 @@ public class BaseTest {
             logger.info("Browser: {}", ConfigReader.getBrowser());
             logger.info("Headless: {}", ConfigReader.isHeadless());
             logger.info("Timeout: {}", ConfigReader.getTimeout());
+            logger.info("Driver pool: {}", DriverPool.isEnabled());
+            logger.info("Driver lifecycle: {}", ConfigReader.getDriverLifecycle());
+            logger.info("Network blocking: {}", NetworkBlocker.isEnabled() ? NetworkBlockProfile.fromConfig() : "disabled");
+            logger.info("Network recording (HAR): {}", NetworkRecorder.isEnabled());
+            logger.info("Execution: {}", RemoteSessionFactory.isEnabled() ? "remote (" + ConfigReader.getGridUrl() + ")" : "local");
             logger.info("===========================");
         } catch (Exception e) {
             logger.warn("Error reading configuration, using defaults: {}", e.getMessage());
             logger.info("Using default configuration");
             logger.info("============================");
         }
+
+        if (NetworkBlocker.isEnabled()) {
+            // Fails the suite early on an unknown network.block.types value
+            NetworkBlockProfile.fromConfig();
+        }
+
+        if (DriverPool.isEnabled() && DriverSessions.isReuseEnabled()) {
+            logger.warn("driver.lifecycle={} is ignored while the driver pool is enabled", ConfigReader.getDriverLifecycle());
+        }
+
+        if (DriverPool.isEnabled() && ConfigReader.getDriverPoolWarmup() > 0) {
+            DriverPool.getInstance().warmUp(getBrowserKey(), ConfigReader.getDriverPoolWarmup(), this::launchDriver);
+        }
     }
 
     @BeforeMethod
+    public void setUp(ITestContext context, ITestResult result) {
+        testContextThreadLocal.set(context);
+        testResultThreadLocal.set(result);
+        setUp();
+    }
+
+    /**
+     * Starts the browser of the current test. Subclasses may override it and call super.setUp();
+     * the test context and result are available through {@link #getTestContext()} and {@link #getTestResult()}.
+     */
     public void setUp() {
-        WebDriver driver = createDriver();
+        ITestContext context = getTestContext();
+        ITestResult result = getTestResult();
+        // A retry continues on the browser of its failed attempt when it is still usable
+        WebDriver driver = RetryAnalyzer.isEnabled() ? RetryDrivers.take(RetryAnalyzer.keyOf(result)) : null;
+        if (driver != null) {
+            logger.debug("Reusing warm driver for retry");
+        } else if (DriverPool.isEnabled()) {
+            driver = DriverPool.getInstance().borrow(getBrowserKey(), this::launchDriver);
+        } else if (DriverSessions.isReuseEnabled()) {
+            driver = DriverSessions.acquire(getSessionScopeKey(context), this::launchDriver);
+        } else {
+            driver = launchDriver();
+        }
         driverThreadLocal.set(driver);
         pendingStepsThreadLocal.set(new ArrayList<>());
+        stepMarkThreadLocal.set(System.currentTimeMillis());
+        if (NetworkBlocker.isEnabled()) {
+            // Requests blocked by a previous user of a reused driver are not this test's
+            NetworkBlocker.takeBlockedCounts(driver);
+        }
+        String testName = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        NetworkRecorder.startTest(driver, testName);
+        PageMetrics.startTest(testName);
+    }
+
+    /**
+     * Adds per-test summaries of the driver's activity to the current Extent test.
+     * Called by ExtentTestListener before the test (or attempt) is completed, which happens
+     * before @AfterMethod, so the summaries also reach streaming reports.
+     */
+    public static void logTestSummaries() {
+        WebDriver driver = getDriverSafe();
+        if (driver == null || ExtentManager.getTest() == null) {
+            return;
+        }
+        if (NetworkBlocker.isEnabled()) {
+            Map<String, Long> blocked = NetworkBlocker.takeBlockedCounts(driver);
+            if (!blocked.isEmpty()) {
+                long total = blocked.values().stream().mapToLong(Long::longValue).sum();
+                ExtentManager.log(Status.INFO, "Network blocking: " + total + " request(s) blocked " + blocked);
+            }
+        }
+        if (NetworkRecorder.isEnabled()) {
+            NetworkRecorder.logTestSummary(driver);
+        }
+    }
 
-        configureTimeouts(driver);
-        driver.manage().window().maximize();
-        navigateToBaseUrl();
+    /**
+     * Creates a fully configured driver parked on the base URL.
+     * If the setup fails the session is quit, so it does not hold a browser (or a Grid slot).
+     */
+    private WebDriver launchDriver() {
+        WebDriver driver = createDriver();
+        try {
+            NetworkBlocker.attach(driver);
+            NetworkRecorder.attach(driver);
+            PageMetrics.attach(driver);
+            configureTimeouts(driver);
+            driver.manage().window().maximize();
+            navigateToBaseUrl(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            try {
+                driver.quit();
+            } catch (RuntimeException quitError) {
+                e.addSuppressed(quitError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies the class, test or suite a reused session belongs to (driver.lifecycle)
+     */
+    private String getSessionScopeKey(ITestContext context) {
+        String suiteName = context.getSuite().getName();
+        switch (DriverSessions.getScope()) {
+            case CLASS:
+                return "class:" + suiteName + "/" + context.getName() + "/" + getClass().getName();
+            case TEST:
+                return "test:" + suiteName + "/" + context.getName();
+            default:
+                return "suite:" + suiteName;
+        }
+    }
+
+    private static String getBrowserKey() {
+        return ConfigReader.getBrowser() + (ConfigReader.isHeadless() ? "-headless" : "")
+                + (RemoteSessionFactory.isEnabled() ? "-remote" : "");
     }
 
     private WebDriver createDriver() {
+        // browser is validated when the configuration is loaded, so failures here are real driver errors
+        String browser = ConfigReader.getBrowser();
+        boolean headless = ConfigReader.isHeadless();
+
+        if (RemoteSessionFactory.isEnabled()) {
+            logger.info("Requesting remote {} session from {} (headless: {})", browser, ConfigReader.getGridUrl(), headless);
+            return RemoteSessionFactory.create(createCapabilities(browser, headless));
+        }
+
+        logger.info("Creating {} driver (headless: {})", browser, headless);
+        switch (browser) {
+            case "chrome":
+                return startLocalDriver("chrome", () -> new ChromeDriver(createChromeOptions(headless)));
+            case "firefox":
+                return startLocalDriver("firefox", () -> new FirefoxDriver(createFirefoxOptions(headless)));
+            case "edge":
+                return startLocalDriver("edge", () -> new EdgeDriver(createEdgeOptions(headless)));
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+
+    /**
+     * Starts a local driver. When the driver binary from the lock file no longer matches the
+     * installed browser, it is resolved again and the session is retried once.
+     */
+    private WebDriver startLocalDriver(String browser, Supplier<WebDriver> factory) {
+        String driverPath = DriverBinaryResolver.resolve(browser);
         try {
-            String browser = ConfigReader.getBrowser().toLowerCase();
-            boolean headless = ConfigReader.isHeadless();
-
-            logger.info("Creating {} driver (headless: {})", browser, headless);
-
-            switch (browser) {
-                case "chrome":
-                    return createChromeDriver(headless);
-                case "firefox":
-                    return createFirefoxDriver(headless);
-                case "edge":
-                    return createEdgeDriver(headless);
-                default:
-                    logger.warn("Unknown browser: '{}'. Using Chrome as default.", browser);
-                    return createChromeDriver(headless);
+            return factory.get();
+        } catch (SessionNotCreatedException e) {
+            if (!DriverBinaryResolver.refresh(browser, driverPath)) {
+                throw e;
             }
-        } catch (Exception e) {
-            logger.error("Error creating driver: {}", e.getMessage());
-            logger.info("Falling back to basic Chrome driver");
-            return createChromeDriver(false); // Fallback to basic Chrome
+            logger.info("Retrying {} session with the re-resolved driver", browser);
+            return factory.get();
+        }
+    }
+
+    /**
+     * Browser options used both for local drivers and as the capabilities of a Grid session
+     */
+    private Capabilities createCapabilities(String browser, boolean headless) {
+        switch (browser) {
+            case "chrome":
+                return createChromeOptions(headless);
+            case "firefox":
+                return createFirefoxOptions(headless);
+            case "edge":
+                return createEdgeOptions(headless);
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
         }
     }
 
-    private WebDriver createChromeDriver(boolean headless) {
-        WebDriverManager.chromedriver().setup();
+    private ChromeOptions createChromeOptions(boolean headless) {
         ChromeOptions options = new ChromeOptions();
 
         if (headless) {
@@ -166,38 +371,22 @@ public class BaseTest {
         }
 
         options.addArguments(DISABLE_WEB_SECURITY_ARG, DISABLE_VIZ_COMPOSITOR_ARG);
-        logger.debug("Chrome driver created with options: {}", options.addArguments());
-        return new ChromeDriver(options);
+        logger.debug("Chrome options: {}", options);
+        return options;
     }
 
-    private WebDriver createFirefoxDriver(boolean headless) {
-        WebDriverManager.firefoxdriver().setup();
+    private FirefoxOptions createFirefoxOptions(boolean headless) {
         FirefoxOptions options = new FirefoxOptions();
 
         if (headless) {
             options.addArguments(HEADLESS_ARG);
         }
 
-        logger.debug("Firefox driver created");
-        return new FirefoxDriver(options);
+        logger.debug("Firefox options: {}", options);
+        return options;
     }
 
-    private WebDriver createEdgeDriver(boolean headless) {
-        try {
-            WebDriverManager.edgedriver().setup();
-        } catch (Exception e) {
-            // Fallback to manual driver if WebDriverManager fails
-            String edgeDriverPath = System.getProperty("user.dir") + "/src/main/resources/drivers/msedgedriver.exe";
-            System.setProperty("webdriver.edge.driver", edgeDriverPath);
-
-            logger.warn("WebDriverManager failed for Edge, using manual path: {}", edgeDriverPath);
-
-            File driverFile = new File(edgeDriverPath);
-            if (!driverFile.exists()) {
-                throw new RuntimeException("Edge driver not found at: " + edgeDriverPath);
-            }
-        }
-
+    private EdgeOptions createEdgeOptions(boolean headless) {
         EdgeOptions options = new EdgeOptions();
 
         if (headless) {
@@ -205,43 +394,88 @@ public class BaseTest {
         }
 
         options.addArguments(DISABLE_WEB_SECURITY_ARG, DISABLE_VIZ_COMPOSITOR_ARG);
-        logger.debug("Edge driver created");
-        return new EdgeDriver(options);
+        logger.debug("Edge options: {}", options);
+        return options;
     }
 
     private void configureTimeouts(WebDriver driver) {
         try {
-            int timeout = ConfigReader.getTimeout();
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(timeout));
+            // Implicit wait is off by default so it does not stack on top of explicit waits
+            int implicitWait = ConfigReader.getImplicitWait();
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
             driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-            logger.debug("Timeouts configured: implicit={}s, pageLoad=30s", timeout);
+            logger.debug("Timeouts configured: implicit={}s, pageLoad=30s", implicitWait);
         } catch (Exception e) {
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
             driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
             logger.warn("Error configuring timeouts, using defaults: {}", e.getMessage());
         }
     }
 
-    private void navigateToBaseUrl() {
+    private void navigateToBaseUrl(WebDriver driver) {
         try {
             String baseUrl = ConfigReader.getBaseUrl();
-            getDriver().get(baseUrl);
+            driver.get(baseUrl);
             logger.info("Navigated to base URL: {}", baseUrl);
         } catch (Exception e) {
-            String defaultUrl = "https://automationexercise.com";
+            String defaultUrl = DEFAULT_BASE_URL;
             logger.error("Error getting base URL: {}", e.getMessage());
             logger.info("Using default URL: {}", defaultUrl);
-            getDriver().get(defaultUrl);
+            driver.get(defaultUrl);
+        }
+    }
+
+    private static String resolveBaseUrl() {
+        try {
+            String baseUrl = ConfigReader.getBaseUrl();
+            return baseUrl != null ? baseUrl : DEFAULT_BASE_URL;
+        } catch (Exception e) {
+            return DEFAULT_BASE_URL;
         }
     }
 
     @AfterMethod
+    public void tearDown(ITestResult result) {
+        testResultThreadLocal.set(result);
+        tearDown();
+    }
+
+    /**
+     * Releases the browser of the current test. Subclasses may override it and call super.tearDown();
+     * a second call for the same test does nothing.
+     */
     public void tearDown() {
+        ITestResult result = testResultThreadLocal.get();
+        if (result == null) {
+            return;
+        }
+        testResultThreadLocal.remove();
+        testContextThreadLocal.remove();
+        StepTimingRecorder.export(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName());
+
         WebDriver driver = driverThreadLocal.get();
+        if (driver != null && NetworkBlocker.isEnabled()) {
+            // A page profile must not leak into the next test that reuses this driver
+            NetworkBlocker.apply(driver, NetworkBlockProfile.fromConfig());
+        }
+        if (driver != null) {
+            NetworkRecorder.stopTest(driver);
+        }
         if (driver != null) {
             try {
-                driver.quit();
-                logger.debug("WebDriver closed successfully");
+                // TestNG decide el reintento antes de @AfterMethod, así que wasRetried() ya es definitivo
+                if (RetryAnalyzer.isEnabled() && result.wasRetried() && RetryDrivers.keep(RetryAnalyzer.keyOf(result), driver, resolveBaseUrl())) {
+                    logger.debug("WebDriver kept for the retry of the failed attempt");
+                } else if (DriverPool.isEnabled()) {
+                    DriverPool.getInstance().release(getBrowserKey(), driver, resolveBaseUrl());
+                    logger.debug("WebDriver returned to pool");
+                } else if (DriverSessions.isReuseEnabled()) {
+                    DriverSessions.release(getSessionScopeKey(result.getTestContext()), driver, resolveBaseUrl());
+                    logger.debug("WebDriver kept for the next method in scope");
+                } else {
+                    driver.quit();
+                    logger.debug("WebDriver closed successfully");
+                }
             } catch (Exception e) {
                 logger.error("Error closing driver: {}", e.getMessage());
             } finally {
@@ -251,33 +485,90 @@ public class BaseTest {
 
         List<PendingStep> steps = pendingStepsThreadLocal.get();
         if (steps != null) {
+            steps.forEach(PendingStep::discard);
             steps.clear();
             pendingStepsThreadLocal.remove();
         }
+        ScreenshotSimilarity.reset();
+        PageMetrics.endTest();
 
         ExtentManager.removeTest();
     }
 
     @AfterSuite
-    public void tearDownSuite() {
+    public void tearDownSuite(ITestContext context) {
+        if (FailedTestRerunner.isRerunPending(context.getSuite())) {
+            // The rerun pass reuses the report and drivers; its own @AfterSuite closes everything
+            logger.info("Failed tests will be rerun, deferring suite teardown");
+            ExtentManager.flushReport();
+            return;
+        }
+        RetryDrivers.closeAll();
+        if (RetryAnalyzer.isEnabled()) {
+            ExtentManager.setSystemInfo("Retries", "max attempts=" + ConfigReader.getRetryMaxAttempts()
+                    + ", warm drivers " + RetryDrivers.getStats());
+        }
+        if (DriverPool.hasInstance()) {
+            DriverPool pool = DriverPool.getInstance();
+            pool.shutdown();
+            ExtentManager.setSystemInfo("Driver Pool", pool.getStats());
+        }
+        if (RemoteSessionFactory.isEnabled()) {
+            ExtentManager.setSystemInfo("Grid", RemoteSessionFactory.getStats());
+        }
+        if (DriverSessions.isReuseEnabled()) {
+            DriverSessions.closeAll();
+            ExtentManager.setSystemInfo("Driver Sessions", DriverSessions.getStats());
+        }
+        ScreenshotPipeline.shutdown();
+        ExtentManager.setSystemInfo("Screenshots", ScreenshotStore.getStats());
+        if (NetworkBlocker.isEnabled()) {
+            ExtentManager.setSystemInfo("Network blocking", NetworkBlocker.getStats());
+        }
+        if (NetworkRecorder.isEnabled()) {
+            NetworkRecorder.shutdown();
+            ExtentManager.setSystemInfo("Network recording", NetworkRecorder.getStats());
+        }
+        if (ScreenshotSimilarity.isEnabled()) {
+            ExtentManager.setSystemInfo("Screenshot similarity", ScreenshotSimilarity.getStats());
+        }
+        if (ElementCache.getTotalLookups() > 0) {
+            ExtentManager.setSystemInfo("Element cache", ElementCache.getGlobalStats());
+        }
+
         logger.info("Flushing extent reports");
-        ExtentManager.flushReport();
+        ExtentManager.closeReport();
     }
 
-    @AfterTest
-    public void afterTestMethod() {
-        WebDriver driver = driverThreadLocal.get();
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                logger.error("Error closing driver in @AfterTest: {}", e.getMessage());
-            } finally {
-                driverThreadLocal.remove();
-            }
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass(ITestContext context) {
+        if (DriverSessions.getScope() == DriverSessions.Scope.CLASS) {
+            DriverSessions.close(getSessionScopeKey(context));
         }
     }
 
+    @AfterTest(alwaysRun = true)
+    public void afterTestMethod(ITestContext context) {
+        // tearDown already quits or hands back every driver; only sessions kept for the <test> remain
+        if (DriverSessions.getScope() == DriverSessions.Scope.TEST) {
+            DriverSessions.close(getSessionScopeKey(context));
+        }
+    }
+
+    /**
+     * TestNG context of the test running on this thread, between setUp and tearDown
+     */
+    protected static ITestContext getTestContext() {
+        return testContextThreadLocal.get();
+    }
+
+    /**
+     * TestNG result of the test running on this thread, between setUp and tearDown
+     */
+    protected static ITestResult getTestResult() {
+        return testResultThreadLocal.get();
+    }
+
     public static WebDriver getDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver == null) {
@@ -290,11 +581,26 @@ public class BaseTest {
         return driverThreadLocal.get();
     }
 
+    /**
+     * Binds a driver to the current thread outside the TestNG lifecycle (benchmarks, tooling)
+     */
+    static void attachDriver(WebDriver driver) {
+        driverThreadLocal.set(driver);
+        pendingStepsThreadLocal.set(new ArrayList<>());
+        stepMarkThreadLocal.set(System.currentTimeMillis());
+    }
+
+    static void detachDriver() {
+        driverThreadLocal.remove();
+        pendingStepsThreadLocal.remove();
+    }
+
     // Navigation Helper Methods
     public static void navigateToUrl(String url) {
         try {
             getDriver().get(url);
             logger.info("Navigated to URL: {}", url);
+            PageMetrics.capture(getDriver(), url);
         } catch (Exception e) {
             logger.error("Error navigating to URL {}: {}", url, e.getMessage());
             throw e;
@@ -326,6 +632,7 @@ public class BaseTest {
             }
 
             processBuffer(BufferAction.COMMIT_SUCCESS, null, false);
+            PageMetrics.capture(getDriver(), pageName);
             logger.info("Successfully navigated to page: {} ({})", pageName, pageUrl);
 
         } catch (Exception e) {
@@ -355,18 +662,49 @@ public class BaseTest {
      * @param mode           Processing mode (BUFFER, IMMEDIATE, STATIC)
      */
     public static void createStep(String description, boolean isPassed, boolean takeScreenshot, StepMode mode) {
+        createStep(description, isPassed, takeScreenshot, mode, -1);
+    }
+
+    /**
+     * Creates a test step recording how long its WebDriver action took
+     *
+     * @param description    Step description
+     * @param isPassed       Whether the step passed or failed
+     * @param takeScreenshot Whether to capture screenshot
+     * @param mode           Processing mode (BUFFER, IMMEDIATE, STATIC)
+     * @param actionMillis   Time spent on the WebDriver action, or -1 when not measured
+     */
+    public static void createStep(String description, boolean isPassed, boolean takeScreenshot, StepMode mode, long actionMillis) {
         switch (mode) {
             case BUFFER:
             case STATIC:
                 List<PendingStep> steps = getPendingSteps();
-                steps.add(new PendingStep(description, isPassed, takeScreenshot));
+                steps.add(new PendingStep(description, isPassed, takeScreenshot, actionMillis));
                 break;
             case IMMEDIATE:
-                writeStepDirectly(description, isPassed, takeScreenshot, getDriverSafe());
+                writeStepDirectly(description, isPassed, takeScreenshot, getDriverSafe(), actionMillis);
                 break;
         }
     }
 
+    /**
+     * Marks the start of the next step. By default a step starts when the previous one ended.
+     */
+    public static void markStepStart() {
+        stepMarkThreadLocal.set(System.currentTimeMillis());
+    }
+
+    private static StepTiming startTiming(String description, boolean isPassed, long actionMillis) {
+        StepTiming timing = new StepTiming(description, isPassed, stepMarkThreadLocal.get(), System.currentTimeMillis(), actionMillis);
+        timing.setNetwork(NetworkRecorder.takeStepSummary(getDriverSafe()));
+        return timing;
+    }
+
+    private static void finishTiming(StepTiming timing, long screenshotMillis) {
+        timing.setScreenshotMillis(screenshotMillis);
+        stepMarkThreadLocal.set(System.currentTimeMillis());
+    }
+
     /**
      * Main method for processing the step buffer
      *
@@ -385,12 +723,12 @@ public class BaseTest {
 
             case COMMIT_WITH_FAILURE:
                 steps.forEach(BaseTest::writeStepDirectlyWithStoredScreenshot);
-                writeStepDirectly(failureDescription, false, takeScreenshot, driver);
+                writeStepDirectly(failureDescription, false, takeScreenshot, driver, -1);
                 break;
 
             case COMMIT_MERGED_FAILURE:
                 if (steps.isEmpty()) {
-                    writeStepDirectly(failureDescription, false, takeScreenshot, driver);
+                    writeStepDirectly(failureDescription, false, takeScreenshot, driver, -1);
                     break;
                 }
 
@@ -399,7 +737,14 @@ public class BaseTest {
                 }
 
                 PendingStep lastStep = steps.get(steps.size() - 1);
+                lastStep.discard();
+                // The discarded capture may be the one later screenshots would point to
+                ScreenshotSimilarity.reset();
                 String mergedMessage = lastStep.getDescription() + "<br>" + failureDescription;
+                StepTiming mergedTiming = new StepTiming(mergedMessage, false,
+                        lastStep.getTiming().getStartMillis(), System.currentTimeMillis(), lastStep.getTiming().getActionMillis());
+                mergedTiming.setNetwork(lastStep.getTiming().getStepNetwork());
+                long captureStart = System.currentTimeMillis();
 
                 String failureScreenshot = null;
                 if (takeScreenshot && driver != null) {
@@ -409,11 +754,14 @@ public class BaseTest {
                         logger.error("Error capturing failure screenshot: {}", e.getMessage());
                     }
                 }
-                writeStepWithCustomScreenshot(mergedMessage, false, failureScreenshot);
+                finishTiming(mergedTiming, failureScreenshot != null ? System.currentTimeMillis() - captureStart : 0);
+                writeStepWithCustomScreenshot(mergedMessage, false, failureScreenshot, mergedTiming);
                 break;
 
             case DISCARD_AND_FAIL:
-                writeStepDirectly(failureDescription, false, takeScreenshot, driver);
+                steps.forEach(PendingStep::discard);
+                ScreenshotSimilarity.reset();
+                writeStepDirectly(failureDescription, false, takeScreenshot, driver, -1);
                 break;
         }
 
@@ -427,64 +775,100 @@ public class BaseTest {
         }
 
         Status status = step.isPassed() ? Status.PASS : Status.FAIL;
-
-        if (step.shouldTakeScreenshot() && step.getScreenshotBase64() != null) {
+        String description = describe(step.getDescription(), step.getTiming());
+
+        if (step.getScreenshotHtml() != null) {
+            String imageHtml = ScreenshotPipeline.await(step.getScreenshotHtml());
+            if (imageHtml != null) {
+                ExtentManager.log(status, description + "<br>" + ScreenshotUtils.withModalScript(imageHtml));
+            } else {
+                ExtentManager.log(status, description);
+                ExtentManager.log(Status.WARNING, ScreenshotUtils.getErrorMessage());
+            }
+        } else if (step.shouldTakeScreenshot() && step.getScreenshotBase64() != null) {
             try {
                 String styleName = step.isPassed() ? "success" : "error";
                 String imageHtml = ScreenshotUtils.generateScreenshotHtml(
                         step.getScreenshotBase64(), styleName, step.getDescription());
-                ExtentManager.getTest().log(status, step.getDescription() + "<br>" + imageHtml);
+                ExtentManager.log(status, description + "<br>" + imageHtml);
             } catch (Exception e) {
-                ExtentManager.getTest().log(status, step.getDescription());
-                ExtentManager.getTest().log(Status.WARNING, "Error displaying screenshot: " + e.getMessage());
+                ExtentManager.log(status, description);
+                ExtentManager.log(Status.WARNING, "Error displaying screenshot: " + e.getMessage());
             }
         } else {
-            ExtentManager.getTest().log(status, step.getDescription());
+            ExtentManager.log(status, description);
         }
     }
 
-    private static void writeStepWithCustomScreenshot(String stepDescription, boolean isPassed, String screenshotBase64) {
+    private static void writeStepWithCustomScreenshot(String stepDescription, boolean isPassed, String screenshotBase64, StepTiming timing) {
         if (ExtentManager.getTest() == null) {
             return;
         }
 
         Status status = isPassed ? Status.PASS : Status.FAIL;
+        String description = describe(stepDescription, timing);
 
         if (screenshotBase64 != null) {
             try {
                 String styleName = isPassed ? "success" : "error";
                 String imageHtml = ScreenshotUtils.generateScreenshotHtml(screenshotBase64, styleName, stepDescription);
-                ExtentManager.getTest().log(status, stepDescription + "<br>" + imageHtml);
+                ExtentManager.log(status, description + "<br>" + imageHtml);
             } catch (Exception e) {
-                ExtentManager.getTest().log(status, stepDescription);
-                ExtentManager.getTest().log(Status.WARNING, "Error displaying screenshot: " + e.getMessage());
+                ExtentManager.log(status, description);
+                ExtentManager.log(Status.WARNING, "Error displaying screenshot: " + e.getMessage());
             }
         } else {
-            ExtentManager.getTest().log(status, stepDescription);
+            ExtentManager.log(status, description);
         }
     }
 
-    private static void writeStepDirectly(String stepDescription, boolean isPassed, boolean takeScreenshot, WebDriver driver) {
+    private static void writeStepDirectly(String stepDescription, boolean isPassed, boolean takeScreenshot, WebDriver driver, long actionMillis) {
         if (ExtentManager.getTest() == null) {
             logger.warn("No active test to create step: {}", stepDescription);
             return;
         }
 
         Status status = isPassed ? Status.PASS : Status.FAIL;
+        StepTiming timing = startTiming(stepDescription, isPassed, actionMillis);
 
         if (takeScreenshot && driver != null) {
             try {
-                String base64Screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+                long captureStart = System.currentTimeMillis();
+                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                finishTiming(timing, System.currentTimeMillis() - captureStart);
                 String styleName = isPassed ? "success" : "error";
-                String imageHtml = ScreenshotUtils.generateScreenshotHtml(base64Screenshot, styleName, stepDescription);
-                ExtentManager.getTest().log(status, stepDescription + "<br>" + imageHtml);
+                String imageHtml;
+                if (ScreenshotSimilarity.isEnabled()) {
+                    // Same ordered comparison as buffered steps; the step is written once it finishes
+                    String html = ScreenshotPipeline.await(ScreenshotPipeline.submit(screenshot, styleName, stepDescription));
+                    if (html == null) {
+                        throw new IllegalStateException("screenshot encoding failed");
+                    }
+                    imageHtml = ScreenshotUtils.withModalScript(html);
+                } else {
+                    imageHtml = ScreenshotUtils.generateScreenshotHtml(screenshot, styleName, stepDescription);
+                }
+                ExtentManager.log(status, describe(stepDescription, timing) + "<br>" + imageHtml);
             } catch (Exception e) {
-                ExtentManager.getTest().log(status, stepDescription);
-                ExtentManager.getTest().log(Status.WARNING, ScreenshotUtils.getErrorMessage() + ": " + e.getMessage());
+                finishTiming(timing, 0);
+                ExtentManager.log(status, describe(stepDescription, timing));
+                ExtentManager.log(Status.WARNING, ScreenshotUtils.getErrorMessage() + ": " + e.getMessage());
             }
         } else {
-            ExtentManager.getTest().log(status, stepDescription);
+            finishTiming(timing, 0);
+            ExtentManager.log(status, describe(stepDescription, timing));
+        }
+    }
+
+    /**
+     * Records the step timing and appends it to the report description
+     */
+    private static String describe(String stepDescription, StepTiming timing) {
+        if (timing == null) {
+            return stepDescription;
         }
+        StepTimingRecorder.record(timing);
+        return stepDescription + timing.toHtml();
     }
 
     public static void refreshPage() {
@@ -0,0 +1,70 @@
+package basetest;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * One DevTools session per driver, shared by the features that talk CDP (network blocking,
+ * HAR recording). Local Chrome/Edge drivers expose DevTools directly; remote Chrome/Edge
+ * sessions are augmented to reach the Grid's CDP endpoint. Other browsers have no session.
+ */
+class DevToolsSessions {
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsSessions.class);
+
+    private static final Map<WebDriver, DevTools> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * DevTools connection of the driver with a session attached to its current window,
+     * or null when the browser does not support CDP or the connection failed
+     */
+    static DevTools get(WebDriver driver) {
+        synchronized (sessions) {
+            DevTools existing = sessions.get(driver);
+            if (existing != null) {
+                return existing;
+            }
+            DevTools devTools = connect(driver);
+            if (devTools != null) {
+                sessions.put(driver, devTools);
+            }
+            return devTools;
+        }
+    }
+
+    private static DevTools connect(WebDriver driver) {
+        try {
+            DevTools devTools = null;
+            if (driver instanceof ChromiumDriver) {
+                devTools = ((ChromiumDriver) driver).getDevTools();
+            } else if (driver instanceof RemoteWebDriver) {
+                String browser = ((RemoteWebDriver) driver).getCapabilities().getBrowserName();
+                if (!"chrome".equalsIgnoreCase(browser) && !"MicrosoftEdge".equalsIgnoreCase(browser)
+                        && !"msedge".equalsIgnoreCase(browser)) {
+                    logger.debug("DevTools not available for {}", browser);
+                    return null;
+                }
+                WebDriver augmented = new Augmenter().augment(driver);
+                if (augmented instanceof HasDevTools) {
+                    devTools = ((HasDevTools) augmented).getDevTools();
+                }
+            }
+            if (devTools != null) {
+                devTools.createSessionIfThereIsNotOne();
+            }
+            return devTools;
+        } catch (RuntimeException e) {
+            logger.warn("DevTools not available: {}", e.getMessage());
+            return null;
+        }
+    }
+}
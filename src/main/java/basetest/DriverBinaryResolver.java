@@ -0,0 +1,192 @@
+package basetest;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves driver binaries (chromedriver, geckodriver, msedgedriver) once per browser per JVM.
+ * Resolved paths are persisted to a lock file so later runs, and air-gapped agents running
+ * with driver.offline=true, skip WebDriverManager version detection entirely.
+ *
+ * A locked driver is not checked against the installed browser up front. When a session cannot
+ * be created with it (typically after a browser auto-update), {@link #refresh(String, String)}
+ * resolves it again and rewrites the lock file; in offline mode the lock file has to be updated by hand.
+ */
+public class DriverBinaryResolver {
+    private static final Logger logger = LoggerFactory.getLogger(DriverBinaryResolver.class);
+
+    private static final Map<String, String> resolvedPaths = new ConcurrentHashMap<>();
+    private static final Set<String> fromLockFile = ConcurrentHashMap.newKeySet();
+    private static Properties lockFile;
+
+    /**
+     * Makes sure the driver binary for the browser is resolved and registered
+     * in the matching webdriver.*.driver system property.
+     *
+     * @param browser chrome, firefox or edge
+     * @return absolute path to the driver binary
+     */
+    public static String resolve(String browser) {
+        return resolvedPaths.computeIfAbsent(browser.toLowerCase(), DriverBinaryResolver::resolveOnce);
+    }
+
+    private static String resolveOnce(String browser) {
+        long start = System.currentTimeMillis();
+        String systemProperty = systemPropertyFor(browser);
+        String source;
+        String path;
+
+        String preset = System.getProperty(systemProperty);
+        String locked = getLockFile().getProperty(browser + ".path");
+
+        if (isExecutable(preset)) {
+            path = preset;
+            source = "system property";
+        } else if (isExecutable(locked)) {
+            path = locked;
+            source = "lock file";
+            fromLockFile.add(browser);
+        } else if (ConfigReader.isDriverOfflineMode()) {
+            throw new IllegalStateException("No cached " + browser + " driver found in "
+                    + getLockFilePath() + " and driver.offline=true");
+        } else {
+            path = resolveWithWebDriverManager(browser);
+            source = "WebDriverManager";
+        }
+
+        System.setProperty(systemProperty, path);
+        logger.info("Resolved {} driver from {} in {} ms: {}",
+                browser, source, System.currentTimeMillis() - start, path);
+        return path;
+    }
+
+    /**
+     * Replaces a driver taken from the lock file that could not start a session, resolving it
+     * again with WebDriverManager and rewriting the lock file. Concurrent callers that failed
+     * with the same path share a single resolution.
+     *
+     * @param failedPath driver path the failed session was started with
+     * @return true when a different driver is now registered and the session can be retried
+     */
+    public static synchronized boolean refresh(String browser, String failedPath) {
+        String key = browser.toLowerCase();
+        String current = resolvedPaths.get(key);
+        if (current != null && !current.equals(failedPath)) {
+            return true;
+        }
+        if (!fromLockFile.contains(key) || ConfigReader.isDriverOfflineMode()) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        String path = resolveWithWebDriverManager(key);
+        fromLockFile.remove(key);
+        resolvedPaths.put(key, path);
+        System.setProperty(systemPropertyFor(key), path);
+        logger.warn("Locked {} driver {} could not start a session; re-resolved in {} ms: {}",
+                key, failedPath, System.currentTimeMillis() - start, path);
+        return !path.equals(failedPath);
+    }
+
+    private static String resolveWithWebDriverManager(String browser) {
+        WebDriverManager manager = WebDriverManager.getInstance(managerTypeFor(browser));
+        try {
+            manager.setup();
+        } catch (Exception e) {
+            if (!"edge".equals(browser)) {
+                throw e;
+            }
+            // Fallback to a driver shipped with the project if WebDriverManager fails
+            String edgeDriverPath = Paths.get(System.getProperty("user.dir"), "src", "main", "resources", "drivers",
+                    isWindows() ? "msedgedriver.exe" : "msedgedriver").toString();
+            logger.warn("WebDriverManager failed for Edge, using manual path: {}", edgeDriverPath);
+            if (!new File(edgeDriverPath).exists()) {
+                throw new RuntimeException("Edge driver not found at: " + edgeDriverPath, e);
+            }
+            return edgeDriverPath;
+        }
+
+        String path = manager.getDownloadedDriverPath();
+        persist(browser, path, manager.getDownloadedDriverVersion());
+        return path;
+    }
+
+    private static synchronized Properties getLockFile() {
+        if (lockFile == null) {
+            lockFile = new Properties();
+            Path path = getLockFilePath();
+            if (Files.exists(path)) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    lockFile.load(in);
+                } catch (IOException e) {
+                    logger.warn("Error reading driver lock file {}: {}", path, e.getMessage());
+                }
+            }
+        }
+        return lockFile;
+    }
+
+    private static synchronized void persist(String browser, String path, String version) {
+        if (path == null) {
+            return;
+        }
+        Properties properties = getLockFile();
+        properties.setProperty(browser + ".path", path);
+        if (version != null) {
+            properties.setProperty(browser + ".version", version);
+        }
+        try (OutputStream out = Files.newOutputStream(getLockFilePath())) {
+            properties.store(out, "Resolved WebDriver binaries - delete to re-resolve");
+        } catch (IOException e) {
+            logger.warn("Error writing driver lock file: {}", e.getMessage());
+        }
+    }
+
+    private static Path getLockFilePath() {
+        return Paths.get(System.getProperty("user.dir")).resolve(ConfigReader.getDriverLockFile());
+    }
+
+    private static boolean isExecutable(String path) {
+        return path != null && !path.isEmpty() && new File(path).isFile();
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("win");
+    }
+
+    private static String systemPropertyFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static DriverManagerType managerTypeFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return DriverManagerType.FIREFOX;
+            case "edge":
+                return DriverManagerType.EDGE;
+            default:
+                return DriverManagerType.CHROME;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package basetest;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of pre-launched WebDriver sessions, one sub-pool per browser key.
+ * Drivers are reset (cookies, storage, extra windows, base URL) when returned and
+ * health-checked when borrowed; unhealthy sessions are quit and replaced.
+ */
+public class DriverPool {
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+    private static final long POLL_SLICE_MILLIS = 250;
+
+    private static volatile DriverPool instance;
+
+    private final int maxPerBrowser;
+    private final long borrowTimeoutMillis;
+    private final Map<String, BrowserPool> pools = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong replaced = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private static class BrowserPool {
+        private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+        private final Semaphore capacity;
+
+        BrowserPool(int size) {
+            this.capacity = new Semaphore(size);
+        }
+    }
+
+    DriverPool(int maxPerBrowser, long borrowTimeoutMillis) {
+        this.maxPerBrowser = maxPerBrowser;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.isDriverPoolEnabled();
+    }
+
+    public static DriverPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverPool.class) {
+                if (instance == null) {
+                    instance = new DriverPool(
+                            Math.max(1, ConfigReader.getDriverPoolSize()),
+                            TimeUnit.SECONDS.toMillis(ConfigReader.getDriverPoolBorrowTimeout()));
+                    logger.info("Driver pool created (max {} sessions per browser)", instance.maxPerBrowser);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Launches up to {@code count} sessions ahead of time so the first tests get a pool hit.
+     */
+    public void warmUp(String browserKey, int count, Supplier<WebDriver> factory) {
+        BrowserPool pool = poolFor(browserKey);
+        int launched = 0;
+        for (int i = 0; i < count && pool.capacity.tryAcquire(); i++) {
+            try {
+                pool.idle.offer(factory.get());
+                launched++;
+            } catch (RuntimeException e) {
+                pool.capacity.release();
+                logger.warn("Error warming up {} driver: {}", browserKey, e.getMessage());
+                break;
+            }
+        }
+        logger.info("Driver pool warmed up with {} {} session(s)", launched, browserKey);
+    }
+
+    /**
+     * Hands out an idle healthy driver, launches a new one while under capacity,
+     * or waits until another test returns its driver.
+     */
+    public WebDriver borrow(String browserKey, Supplier<WebDriver> factory) {
+        BrowserPool pool = poolFor(browserKey);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        try {
+            while (true) {
+                WebDriver driver = pool.idle.poll();
+                if (driver == null) {
+                    if (pool.capacity.tryAcquire()) {
+                        recordWait(start);
+                        misses.incrementAndGet();
+                        try {
+                            return factory.get();
+                        } catch (RuntimeException e) {
+                            pool.capacity.release();
+                            throw e;
+                        }
+                    }
+
+                    if (System.nanoTime() >= deadline) {
+                        throw new IllegalStateException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a " + browserKey + " driver from the pool");
+                    }
+
+                    driver = pool.idle.poll(POLL_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (driver == null) {
+                        continue;
+                    }
+                }
+
+                if (isHealthy(driver)) {
+                    recordWait(start);
+                    hits.incrementAndGet();
+                    return driver;
+                }
+                discard(pool, driver, "unhealthy on borrow");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pooled driver", e);
+        }
+    }
+
+    /**
+     * Returns a driver to the pool after resetting its state. Drivers that cannot be
+     * reset are quit so the next borrow launches a fresh session.
+     */
+    public void release(String browserKey, WebDriver driver, String baseUrl) {
+        if (driver == null) {
+            return;
+        }
+        BrowserPool pool = poolFor(browserKey);
+        if (resetState(driver, baseUrl)) {
+            pool.idle.offer(driver);
+        } else {
+            discard(pool, driver, "reset failed");
+        }
+    }
+
+    public void shutdown() {
+        for (Map.Entry<String, BrowserPool> entry : pools.entrySet()) {
+            List<WebDriver> drivers = new ArrayList<>();
+            entry.getValue().idle.drainTo(drivers);
+            for (WebDriver driver : drivers) {
+                quitQuietly(driver);
+                entry.getValue().capacity.release();
+            }
+        }
+        logger.info("Driver pool closed. {}", getStats());
+    }
+
+    public String getStats() {
+        long count = borrows.get();
+        long avgWaitMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+        return String.format("borrows=%d, hits=%d, misses=%d, replaced=%d, avgWait=%dms, maxWait=%dms",
+                count, hits.get(), misses.get(), replaced.get(), avgWaitMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    static boolean hasInstance() {
+        return instance != null;
+    }
+
+    /**
+     * Cheap liveness probe: a dead session fails on the first remote call.
+     */
+    static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            logger.debug("Driver health check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Brings a session back to a clean state: single window, no cookies,
+     * empty web storage and parked on the base URL.
+     *
+     * On Chrome/Edge the cookies of every origin are cleared through CDP, together with all the
+     * storage (web storage, IndexedDB, Cache Storage, service workers) of the current origin and
+     * of the base URL. Storage of other origins the test visited survives, because CDP has no
+     * command that lists them. Other browsers only get WebDriver's cookie deletion and the web
+     * storage clear, and both are limited to the current origin.
+     *
+     * @return false when the session could not be reset and should not be reused
+     */
+    static boolean resetState(WebDriver driver, String baseUrl) {
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String mainHandle = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(mainHandle)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(mainHandle);
+
+            boolean clearedByCdp = clearBrowserData(driver, baseUrl);
+            if (!clearedByCdp) {
+                driver.manage().deleteAllCookies();
+            }
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception e) {
+                logger.debug("Could not clear web storage: {}", e.getMessage());
+            }
+
+            driver.get(baseUrl);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Error resetting driver state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Clears browser data through the shared DevTools session (Chrome/Edge).
+     *
+     * @return false when the browser has no DevTools session or a command failed
+     */
+    private static boolean clearBrowserData(WebDriver driver, String baseUrl) {
+        DevTools devTools = DevToolsSessions.get(driver);
+        if (devTools == null) {
+            return false;
+        }
+        try {
+            devTools.send(new Command<Void>("Network.clearBrowserCookies", Collections.emptyMap()));
+            for (String origin : new String[] { originOf(driver.getCurrentUrl()), originOf(baseUrl) }) {
+                if (origin != null) {
+                    Map<String, Object> params = new LinkedHashMap<>();
+                    params.put("origin", origin);
+                    params.put("storageTypes", "all");
+                    devTools.send(new Command<Void>("Storage.clearDataForOrigin", params));
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logger.debug("Could not clear browser data through DevTools: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * scheme://host[:port] of an http(s) URL, or null
+     */
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null || !uri.getScheme().startsWith("http")) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private BrowserPool poolFor(String browserKey) {
+        return pools.computeIfAbsent(browserKey, key -> new BrowserPool(maxPerBrowser));
+    }
+
+    private void discard(BrowserPool pool, WebDriver driver, String reason) {
+        logger.info("Discarding pooled driver ({})", reason);
+        quitQuietly(driver);
+        pool.capacity.release();
+        replaced.incrementAndGet();
+    }
+
+    private void recordWait(long startNanos) {
+        long waited = System.nanoTime() - startNanos;
+        borrows.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting pooled driver: {}", e.getMessage());
+        }
+    }
+}
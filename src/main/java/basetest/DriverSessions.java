@@ -0,0 +1,115 @@
+package basetest;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps browser sessions alive across test methods according to driver.lifecycle:
+ * - method: a fresh browser per test method (default)
+ * - class / test / suite: sessions are reused by every method in the same class,
+ *   &lt;test&gt; or suite and only quit when that scope ends
+ *
+ * Between methods a reused session is reset (extra windows closed, cookies and web
+ * storage cleared, parked on the base URL). A session that cannot be reset is quit and
+ * the next method launches a fresh one. Each thread takes its own session from the
+ * scope, so parallel methods never share a browser.
+ */
+public class DriverSessions {
+    private static final Logger logger = LoggerFactory.getLogger(DriverSessions.class);
+
+    public enum Scope {
+        METHOD, CLASS, TEST, SUITE;
+
+        static Scope fromConfig() {
+            return valueOf(ConfigReader.getDriverLifecycle().toUpperCase());
+        }
+    }
+
+    private static final Map<String, Queue<WebDriver>> idleSessions = new ConcurrentHashMap<>();
+    private static final AtomicLong launches = new AtomicLong();
+    private static final AtomicLong reuses = new AtomicLong();
+    private static final AtomicLong resetFailures = new AtomicLong();
+
+    public static Scope getScope() {
+        return Scope.fromConfig();
+    }
+
+    public static boolean isReuseEnabled() {
+        return getScope() != Scope.METHOD;
+    }
+
+    /**
+     * Takes an idle session of the scope or launches a new one
+     */
+    static WebDriver acquire(String scopeKey, Supplier<WebDriver> launcher) {
+        Queue<WebDriver> idle = idleSessions.get(scopeKey);
+        WebDriver driver;
+        while (idle != null && (driver = idle.poll()) != null) {
+            if (DriverPool.isHealthy(driver)) {
+                reuses.incrementAndGet();
+                logger.debug("Reusing driver session for scope {}", scopeKey);
+                return driver;
+            }
+            logger.warn("Discarding dead driver session for scope {}", scopeKey);
+            quitQuietly(driver);
+        }
+        launches.incrementAndGet();
+        return launcher.get();
+    }
+
+    /**
+     * Resets the session and keeps it for the next method of the scope
+     */
+    static void release(String scopeKey, WebDriver driver, String baseUrl) {
+        if (!DriverPool.resetState(driver, baseUrl)) {
+            resetFailures.incrementAndGet();
+            logger.warn("Could not reset driver session for scope {}, a fresh driver will be launched", scopeKey);
+            quitQuietly(driver);
+            return;
+        }
+        idleSessions.computeIfAbsent(scopeKey, key -> new ConcurrentLinkedQueue<>()).offer(driver);
+    }
+
+    /**
+     * Quits every session kept for the scope
+     */
+    static void close(String scopeKey) {
+        Queue<WebDriver> idle = idleSessions.remove(scopeKey);
+        if (idle == null) {
+            return;
+        }
+        int closed = 0;
+        WebDriver driver;
+        while ((driver = idle.poll()) != null) {
+            quitQuietly(driver);
+            closed++;
+        }
+        logger.debug("Closed {} driver session(s) for scope {}", closed, scopeKey);
+    }
+
+    static void closeAll() {
+        idleSessions.keySet().forEach(DriverSessions::close);
+    }
+
+    public static String getStats() {
+        return String.format("scope=%s, launches=%d, reuses=%d, reset failures=%d",
+                getScope().name().toLowerCase(), launches.get(), reuses.get(), resetFailures.get());
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting driver: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package basetest;
+
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable set of requests to block in the browser: URL wildcard patterns ('*' any text,
+ * '?' one character) and DevTools resource types (Image, Media, Font, Stylesheet, ...).
+ *
+ * The suite profile comes from network.block.urls / network.block.types; a page can use
+ * its own profile, usually derived from the suite one:
+ * <pre>
+ * networkBlockProfile = NetworkBlockProfile.fromConfig().blockTypes("Media", "Font");
+ * </pre>
+ */
+public final class NetworkBlockProfile {
+    /**
+     * Resource types accepted by Fetch.enable (Network.ResourceType)
+     */
+    public static final List<String> RESOURCE_TYPES = Collections.unmodifiableList(Arrays.asList(
+            "Document", "Stylesheet", "Image", "Media", "Font", "Script", "TextTrack", "XHR", "Fetch",
+            "Prefetch", "EventSource", "WebSocket", "Manifest", "SignedExchange", "Ping",
+            "CSPViolationReport", "Preflight", "Other"));
+
+    private static final NetworkBlockProfile NONE = new NetworkBlockProfile(Collections.emptySet(), Collections.emptySet());
+
+    private final Set<String> urlPatterns;
+    private final Set<String> resourceTypes;
+
+    private NetworkBlockProfile(Set<String> urlPatterns, Set<String> resourceTypes) {
+        this.urlPatterns = Collections.unmodifiableSet(urlPatterns);
+        this.resourceTypes = Collections.unmodifiableSet(resourceTypes);
+    }
+
+    public static NetworkBlockProfile none() {
+        return NONE;
+    }
+
+    /**
+     * Suite profile from network.block.urls and network.block.types
+     */
+    public static NetworkBlockProfile fromConfig() {
+        return none().blockUrls(ConfigReader.getNetworkBlockUrls().toArray(new String[0]))
+                .blockTypes(ConfigReader.getNetworkBlockTypes().toArray(new String[0]));
+    }
+
+    /**
+     * Copy of this profile that also blocks the given URL patterns
+     */
+    public NetworkBlockProfile blockUrls(String... patterns) {
+        Set<String> urls = new LinkedHashSet<>(urlPatterns);
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.trim().isEmpty()) {
+                urls.add(pattern.trim());
+            }
+        }
+        return new NetworkBlockProfile(urls, new LinkedHashSet<>(resourceTypes));
+    }
+
+    /**
+     * Copy of this profile that also blocks the given resource types (case-insensitive)
+     *
+     * @throws IllegalArgumentException for a type DevTools does not know
+     */
+    public NetworkBlockProfile blockTypes(String... types) {
+        Set<String> blocked = new LinkedHashSet<>(resourceTypes);
+        for (String type : types) {
+            if (type != null && !type.trim().isEmpty()) {
+                blocked.add(canonicalType(type));
+            }
+        }
+        return new NetworkBlockProfile(new LinkedHashSet<>(urlPatterns), blocked);
+    }
+
+    /**
+     * DevTools name of a resource type (e.g. "image" -&gt; "Image")
+     *
+     * @throws IllegalArgumentException for a type DevTools does not know
+     */
+    public static String canonicalType(String type) {
+        for (String known : RESOURCE_TYPES) {
+            if (known.equalsIgnoreCase(type.trim())) {
+                return known;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resource type: " + type + " (expected one of " + RESOURCE_TYPES + ")");
+    }
+
+    public Set<String> getUrlPatterns() {
+        return urlPatterns;
+    }
+
+    public Set<String> getResourceTypes() {
+        return resourceTypes;
+    }
+
+    public boolean isEmpty() {
+        return urlPatterns.isEmpty() && resourceTypes.isEmpty();
+    }
+
+    /**
+     * Fetch.enable request patterns: one per URL pattern and one per resource type (any of them matches)
+     */
+    List<Map<String, Object>> toFetchPatterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String url : urlPatterns) {
+            Map<String, Object> pattern = new LinkedHashMap<>();
+            pattern.put("urlPattern", url);
+            pattern.put("requestStage", "Request");
+            patterns.add(pattern);
+        }
+        for (String type : resourceTypes) {
+            Map<String, Object> pattern = new LinkedHashMap<>();
+            pattern.put("urlPattern", "*");
+            pattern.put("resourceType", type);
+            pattern.put("requestStage", "Request");
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof NetworkBlockProfile)) {
+            return false;
+        }
+        NetworkBlockProfile profile = (NetworkBlockProfile) other;
+        return urlPatterns.equals(profile.urlPatterns) && resourceTypes.equals(profile.resourceTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(urlPatterns, resourceTypes);
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "none";
+        }
+        return "urls=" + urlPatterns + ", types=" + resourceTypes;
+    }
+}
@@ -0,0 +1,147 @@
+package basetest;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocks requests in Chrome/Edge through DevTools (network.block.enabled=true).
+ *
+ * Fetch.enable is called with the patterns of the active {@link NetworkBlockProfile}, so the
+ * browser only pauses matching requests and every paused request is failed with BlockedByClient;
+ * the rest of the traffic never reaches this class. Raw CDP commands are used instead of the
+ * versioned devtools bindings, so the code does not depend on the browser's CDP version.
+ * The DevTools session comes from {@link DevToolsSessions} (Chrome/Edge, local or Grid).
+ *
+ * Blocked requests are counted per driver (by resource type) and reported per test by BaseTest.
+ * Bytes saved cannot be measured: a blocked request is never sent, so its size is unknown.
+ */
+public class NetworkBlocker {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkBlocker.class);
+
+    private static final Map<WebDriver, Session> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong totalBlocked = new AtomicLong();
+    private static final AtomicLong attachFailures = new AtomicLong();
+
+    /**
+     * DevTools connection of a driver and the requests blocked since the last report
+     */
+    private static class Session {
+        final DevTools devTools;
+        final Map<String, LongAdder> blocked = new ConcurrentHashMap<>();
+        volatile NetworkBlockProfile profile = NetworkBlockProfile.none();
+
+        Session(DevTools devTools) {
+            this.devTools = devTools;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.isNetworkBlockEnabled();
+    }
+
+    /**
+     * Opens the DevTools session of a new driver and applies the suite profile.
+     * Browsers without CDP (Firefox) are left untouched.
+     */
+    static void attach(WebDriver driver) {
+        if (!isEnabled() || sessions.containsKey(driver)) {
+            return;
+        }
+        DevTools devTools = DevToolsSessions.get(driver);
+        if (devTools == null) {
+            return;
+        }
+        try {
+            Session session = new Session(devTools);
+            devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    paused -> onRequestPaused(session, paused));
+            sessions.put(driver, session);
+            apply(driver, NetworkBlockProfile.fromConfig());
+        } catch (RuntimeException e) {
+            attachFailures.incrementAndGet();
+            logger.warn("Could not enable network blocking: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Switches the driver to another profile (no-op if it is already active)
+     */
+    public static void apply(WebDriver driver, NetworkBlockProfile profile) {
+        Session session = sessions.get(driver);
+        if (session == null || session.profile.equals(profile)) {
+            return;
+        }
+        try {
+            if (profile.isEmpty()) {
+                session.devTools.send(new Command<Void>("Fetch.disable", Collections.emptyMap()));
+            } else {
+                Map<String, Object> params = new LinkedHashMap<>();
+                params.put("patterns", profile.toFetchPatterns());
+                session.devTools.send(new Command<Void>("Fetch.enable", params));
+            }
+            session.profile = profile;
+            logger.debug("Network block profile: {}", profile);
+        } catch (RuntimeException e) {
+            logger.warn("Could not apply network block profile {}: {}", profile, e.getMessage());
+        }
+    }
+
+    /**
+     * Requests blocked since the last call, by resource type; the counters start again from zero
+     */
+    static Map<String, Long> takeBlockedCounts(WebDriver driver) {
+        Session session = sessions.get(driver);
+        Map<String, Long> counts = new TreeMap<>();
+        if (session == null) {
+            return counts;
+        }
+        for (String type : session.blocked.keySet()) {
+            LongAdder adder = session.blocked.get(type);
+            long count = adder != null ? adder.sumThenReset() : 0;
+            if (count > 0) {
+                counts.put(type, count);
+            }
+        }
+        return counts;
+    }
+
+    public static String getStats() {
+        return String.format("profile=%s, blocked=%d, attach failures=%d",
+                NetworkBlockProfile.fromConfig(), totalBlocked.get(), attachFailures.get());
+    }
+
+    private static void onRequestPaused(Session session, Map<String, Object> paused) {
+        Object requestId = paused.get("requestId");
+        if (requestId == null) {
+            return;
+        }
+        Object type = paused.get("resourceType");
+        session.blocked.computeIfAbsent(type != null ? type.toString() : "Other", key -> new LongAdder()).increment();
+        totalBlocked.incrementAndGet();
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("requestId", requestId);
+        params.put("errorReason", "BlockedByClient");
+        try {
+            // Fire and forget: waiting for the answer on the DevTools event thread is not needed
+            session.devTools.send(new Command<Void>("Fetch.failRequest", params).doesNotSendResponse());
+        } catch (RuntimeException e) {
+            logger.debug("Could not block request {}: {}", requestId, e.getMessage());
+        }
+    }
+}
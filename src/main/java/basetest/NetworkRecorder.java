@@ -0,0 +1,543 @@
+package basetest;
+
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+import utils.ExtentManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the network traffic of each test as a HAR file (network.har.enabled=true, Chrome/Edge).
+ *
+ * CDP Network events are handed to a single background writer thread; the DevTools thread only
+ * parses the event and the test thread never touches the file. The writer keeps only the requests
+ * still in flight and appends each finished request to reports/har/&lt;run&gt;/&lt;Class.method&gt;.har
+ * as soon as it completes, so memory does not grow with the number of requests.
+ *
+ * Finished requests are also aggregated per step (count, bytes, slowest) and attached to the
+ * step timing, and per test for the summary logged before the test is completed. The test thread
+ * never waits for the writer: each step bumps a sequence number, every CDP event is stamped with
+ * the current number when it arrives, and the writer credits each finished request to that step.
+ * A step summary is resolved when the step is written to the report; requests the writer has not
+ * handled by then only count towards the test totals.
+ *
+ * The writer queue is bounded: when the browser produces events faster than they can be written,
+ * new events are dropped (and counted in the stats) instead of growing the heap. The last
+ * CONTROL_RESERVE slots are kept for HAR open/close, which never wait for room either; if even
+ * those are full the task is dropped with a warning.
+ */
+public class NetworkRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkRecorder.class);
+    private static final String HAR_DIR = "har";
+    private static final Json JSON = new Json();
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int CONTROL_RESERVE = 100;
+
+    private static final Map<WebDriver, Recording> recordings = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong recordedRequests = new AtomicLong();
+    private static final AtomicLong harFiles = new AtomicLong();
+    private static final AtomicLong droppedEvents = new AtomicLong();
+    private static volatile ThreadPoolExecutor writer;
+
+    public static boolean isEnabled() {
+        return ConfigReader.isNetworkHarEnabled();
+    }
+
+    /**
+     * Network activity aggregated over a step or a test
+     */
+    public static class Summary {
+        private final int requests;
+        private final long bytes;
+        private final List<String[]> slowest;
+
+        Summary(int requests, long bytes, List<String[]> slowest) {
+            this.requests = requests;
+            this.bytes = bytes;
+            this.slowest = slowest;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Slowest requests as {url, milliseconds}, slowest first
+         */
+        public List<String[]> getSlowest() {
+            return slowest;
+        }
+
+        public String toText() {
+            StringBuilder text = new StringBuilder().append(requests).append(" requests, ").append(bytes / 1024).append(" KB");
+            if (!slowest.isEmpty()) {
+                text.append("; slowest: ");
+                for (int i = 0; i < slowest.size(); i++) {
+                    text.append(i > 0 ? ", " : "").append(shorten(slowest.get(i)[0])).append(" (").append(slowest.get(i)[1]).append(" ms)");
+                }
+            }
+            return text.toString();
+        }
+
+        /**
+         * Summary for the report, HTML-escaped
+         */
+        public String toHtml() {
+            return toText().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("requests", requests);
+            map.put("bytes", bytes);
+            List<Map<String, Object>> slow = new ArrayList<>();
+            for (String[] request : slowest) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("url", request[0]);
+                entry.put("ms", Long.parseLong(request[1]));
+                slow.add(entry);
+            }
+            map.put("slowest", slow);
+            return map;
+        }
+
+        private static String shorten(String url) {
+            String withoutQuery = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+            return withoutQuery.length() > 80 ? "..." + withoutQuery.substring(withoutQuery.length() - 77) : withoutQuery;
+        }
+    }
+
+    /**
+     * Network activity of one step, resolved the first time it is read
+     */
+    public static final class StepNetwork {
+        private final Recording recording;
+        private final long step;
+        private Summary summary;
+
+        private StepNetwork(Recording recording, long step) {
+            this.recording = recording;
+            this.step = step;
+        }
+
+        /**
+         * Requests the writer has credited to the step so far; later reads return the same summary
+         */
+        public synchronized Summary resolve() {
+            if (summary == null) {
+                Stats stats = recording.stepStats.remove(step);
+                summary = stats != null ? stats.take() : new Summary(0, 0, Collections.emptyList());
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Aggregates finished requests; written by the writer thread, read by the test thread
+     */
+    private static class Stats {
+        private int requests;
+        private long bytes;
+        private final List<String[]> slowest = new ArrayList<>();
+
+        synchronized void add(String url, long size, long millis) {
+            requests++;
+            bytes += Math.max(0, size);
+            int limit = ConfigReader.getNetworkHarSlowest();
+            if (limit <= 0) {
+                return;
+            }
+            slowest.add(new String[]{url, String.valueOf(millis)});
+            slowest.sort(Comparator.comparingLong((String[] request) -> Long.parseLong(request[1])).reversed());
+            if (slowest.size() > limit) {
+                slowest.remove(slowest.size() - 1);
+            }
+        }
+
+        synchronized Summary take() {
+            Summary summary = new Summary(requests, bytes, new ArrayList<>(slowest));
+            requests = 0;
+            bytes = 0;
+            slowest.clear();
+            return summary;
+        }
+    }
+
+    /**
+     * Per-driver state. The step sequence is written only by the test thread that owns the driver;
+     * everything except the stats and the sequence is only touched by the writer thread.
+     */
+    private static class Recording {
+        final Map<String, Map<String, Object>> inFlight = new HashMap<>();
+        final Map<Long, Stats> stepStats = new ConcurrentHashMap<>();
+        final Stats testStats = new Stats();
+        volatile long step;
+        long firstStep;
+        Writer har;
+        volatile Path harPath;
+        boolean firstEntry;
+    }
+
+    /**
+     * Subscribes to the Network events of a new driver
+     */
+    static void attach(WebDriver driver) {
+        if (!isEnabled() || recordings.containsKey(driver)) {
+            return;
+        }
+        DevTools devTools = DevToolsSessions.get(driver);
+        if (devTools == null) {
+            return;
+        }
+        try {
+            Recording recording = new Recording();
+            for (String method : new String[]{"Network.requestWillBeSent", "Network.responseReceived",
+                    "Network.loadingFinished", "Network.loadingFailed"}) {
+                devTools.addListener(new Event<>(method, input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                        params -> {
+                            long step = recording.step;
+                            submit(() -> handle(recording, method, params, step));
+                        });
+            }
+            devTools.send(new Command<Void>("Network.enable", Collections.emptyMap()));
+            recordings.put(driver, recording);
+        } catch (RuntimeException e) {
+            logger.warn("Could not start network recording: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the HAR file of a test; traffic between tests is not recorded
+     */
+    static void startTest(WebDriver driver, String testName) {
+        Recording recording = recordings.get(driver);
+        if (recording == null) {
+            return;
+        }
+        long firstStep = recording.step + 1;
+        recording.step = firstStep;
+        // Reset on the writer, after the events of the previous test still in the queue
+        submitControl(() -> {
+            recording.firstStep = firstStep;
+            recording.stepStats.keySet().removeIf(step -> step < firstStep);
+            recording.testStats.take();
+            openHar(recording, testName);
+        });
+    }
+
+    /**
+     * Closes the HAR file of the current test (the writer finishes it in the background)
+     */
+    static void stopTest(WebDriver driver) {
+        Recording recording = recordings.get(driver);
+        if (recording != null) {
+            submitControl(() -> closeHar(recording));
+        }
+    }
+
+    /**
+     * Closes the current step: requests finished since the previous step, resolved when the step is
+     * written. Null when the driver is not recorded.
+     */
+    static StepNetwork takeStepSummary(WebDriver driver) {
+        Recording recording = driver != null ? recordings.get(driver) : null;
+        if (recording == null) {
+            return null;
+        }
+        long step = recording.step;
+        recording.step = step + 1;
+        return new StepNetwork(recording, step);
+    }
+
+    /**
+     * Logs the test totals handled by the writer so far and a link to its HAR file to the current
+     * Extent test
+     */
+    static void logTestSummary(WebDriver driver) {
+        Recording recording = recordings.get(driver);
+        if (recording == null) {
+            return;
+        }
+        Summary summary = recording.testStats.take();
+        Path harPath = recording.harPath;
+        String link = harPath != null
+                ? " &middot; <a href='" + HAR_DIR + "/" + ExtentManager.getRunTimestamp() + "/" + harPath.getFileName()
+                + "' target='_blank'>HAR</a>"
+                : "";
+        ExtentManager.log(Status.INFO, "Network: " + summary.toHtml() + link);
+    }
+
+    /**
+     * Finishes every open HAR file; called once at the end of the suite
+     */
+    public static void shutdown() {
+        ThreadPoolExecutor current = writer;
+        if (current == null) {
+            return;
+        }
+        synchronized (recordings) {
+            for (Recording recording : recordings.values()) {
+                submitControl(() -> closeHar(recording));
+            }
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(30, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    public static String getStats() {
+        return String.format("HAR files=%d, requests=%d, dropped events=%d",
+                harFiles.get(), recordedRequests.get(), droppedEvents.get());
+    }
+
+    /**
+     * Queues a CDP event; dropped when only the control reserve is left in the writer queue
+     */
+    private static void submit(Runnable task) {
+        ThreadPoolExecutor current = getWriter();
+        if (current.getQueue().remainingCapacity() <= CONTROL_RESERVE) {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        try {
+            current.execute(task);
+        } catch (RejectedExecutionException e) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a HAR open/close task; may use the control reserve but never waits for room
+     */
+    private static void submitControl(Runnable task) {
+        try {
+            getWriter().execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("HAR writer queue full, control task dropped; the HAR file of this test may be incomplete");
+        }
+    }
+
+    private static ThreadPoolExecutor getWriter() {
+        if (writer == null) {
+            synchronized (NetworkRecorder.class) {
+                if (writer == null) {
+                    writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "har-writer");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                }
+            }
+        }
+        return writer;
+    }
+
+    // ---- Writer thread ----
+
+    @SuppressWarnings("unchecked")
+    private static void handle(Recording recording, String method, Map<String, Object> params, long step) {
+        // Events stamped before the test started belong to the previous one
+        if (recording.har == null || step < recording.firstStep) {
+            return;
+        }
+        String requestId = String.valueOf(params.get("requestId"));
+        switch (method) {
+            case "Network.requestWillBeSent": {
+                Map<String, Object> previous = recording.inFlight.remove(requestId);
+                if (previous != null && params.get("redirectResponse") != null) {
+                    // Same id after a redirect: the first hop ends with the redirect response
+                    previous.put("response", params.get("redirectResponse"));
+                    finish(recording, step, previous, number(params.get("timestamp")), 0, null);
+                }
+                recording.inFlight.put(requestId, new HashMap<>(params));
+                break;
+            }
+            case "Network.responseReceived": {
+                Map<String, Object> request = recording.inFlight.get(requestId);
+                if (request != null) {
+                    request.put("response", params.get("response"));
+                    request.put("responseTimestamp", params.get("timestamp"));
+                }
+                break;
+            }
+            case "Network.loadingFinished": {
+                Map<String, Object> request = recording.inFlight.remove(requestId);
+                if (request != null) {
+                    finish(recording, step, request, number(params.get("timestamp")), (long) number(params.get("encodedDataLength")), null);
+                }
+                break;
+            }
+            case "Network.loadingFailed": {
+                Map<String, Object> request = recording.inFlight.remove(requestId);
+                if (request != null) {
+                    finish(recording, step, request, number(params.get("timestamp")), 0, String.valueOf(params.get("errorText")));
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void finish(Recording recording, long step, Map<String, Object> sent, double endTimestamp, long bytes, String error) {
+        Map<String, Object> request = (Map<String, Object>) sent.getOrDefault("request", Collections.emptyMap());
+        Map<String, Object> response = (Map<String, Object>) sent.get("response");
+        String url = String.valueOf(request.get("url"));
+
+        double start = number(sent.get("timestamp"));
+        long total = Math.max(0, Math.round((endTimestamp - start) * 1000));
+        long wait = sent.get("responseTimestamp") != null
+                ? Math.max(0, Math.round((number(sent.get("responseTimestamp")) - start) * 1000))
+                : total;
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("startedDateTime", Instant.ofEpochMilli(Math.round(number(sent.get("wallTime")) * 1000)).toString());
+        entry.put("time", total);
+        entry.put("request", harRequest(request));
+        entry.put("response", harResponse(response, bytes, error));
+        entry.put("cache", Collections.emptyMap());
+        Map<String, Object> timings = new LinkedHashMap<>();
+        timings.put("send", 0);
+        timings.put("wait", wait);
+        timings.put("receive", Math.max(0, total - wait));
+        entry.put("timings", timings);
+        entry.put("_resourceType", sent.get("type"));
+
+        try {
+            recording.har.write(recording.firstEntry ? "\n" : ",\n");
+            recording.har.write(JSON.toJson(entry));
+            recording.firstEntry = false;
+        } catch (IOException e) {
+            logger.warn("Error writing HAR entry: {}", e.getMessage());
+        }
+        recordedRequests.incrementAndGet();
+        recording.stepStats.computeIfAbsent(step, key -> new Stats()).add(url, bytes, total);
+        recording.testStats.add(url, bytes, total);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> harRequest(Map<String, Object> request) {
+        Map<String, Object> har = new LinkedHashMap<>();
+        har.put("method", request.getOrDefault("method", "GET"));
+        har.put("url", request.get("url"));
+        har.put("httpVersion", "");
+        har.put("cookies", Collections.emptyList());
+        har.put("headers", harHeaders((Map<String, Object>) request.get("headers")));
+        har.put("queryString", Collections.emptyList());
+        har.put("headersSize", -1);
+        har.put("bodySize", -1);
+        return har;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> harResponse(Map<String, Object> response, long bytes, String error) {
+        Map<String, Object> har = new LinkedHashMap<>();
+        Map<String, Object> source = response != null ? response : Collections.emptyMap();
+        har.put("status", source.containsKey("status") ? Math.round(number(source.get("status"))) : 0);
+        har.put("statusText", error != null ? error : source.getOrDefault("statusText", ""));
+        har.put("httpVersion", source.getOrDefault("protocol", ""));
+        har.put("cookies", Collections.emptyList());
+        har.put("headers", harHeaders((Map<String, Object>) source.get("headers")));
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("size", bytes);
+        content.put("mimeType", source.getOrDefault("mimeType", ""));
+        har.put("content", content);
+        har.put("redirectURL", "");
+        har.put("headersSize", -1);
+        har.put("bodySize", bytes);
+        return har;
+    }
+
+    private static List<Map<String, Object>> harHeaders(Map<String, Object> headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                Map<String, Object> header = new LinkedHashMap<>();
+                header.put("name", name);
+                header.put("value", String.valueOf(value));
+                list.add(header);
+            });
+        }
+        return list;
+    }
+
+    private static void openHar(Recording recording, String testName) {
+        closeHar(recording);
+        Path directory = Paths.get(ExtentManager.getReportDirectory(), HAR_DIR, ExtentManager.getRunTimestamp());
+        try {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(testName + ".har");
+            for (int run = 2; Files.exists(path); run++) {
+                // Retries and reruns of the same test keep their own file
+                path = directory.resolve(testName + "-" + run + ".har");
+            }
+            Writer har = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            har.write("{\"log\": {\"version\": \"1.2\", \"creator\": {\"name\": \"selenium-extent-template\", \"version\": \"1.0\"},"
+                    + " \"pages\": [], \"entries\": [");
+            recording.har = har;
+            recording.harPath = path;
+            recording.firstEntry = true;
+            harFiles.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Could not create HAR file for {}: {}", testName, e.getMessage());
+        }
+    }
+
+    private static void closeHar(Recording recording) {
+        recording.inFlight.clear();
+        if (recording.har == null) {
+            return;
+        }
+        try {
+            recording.har.write("\n]}}\n");
+            recording.har.close();
+        } catch (IOException e) {
+            logger.warn("Error closing HAR file {}: {}", recording.harPath, e.getMessage());
+        }
+        recording.har = null;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
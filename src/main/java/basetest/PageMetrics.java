@@ -0,0 +1,284 @@
+package basetest;
+
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+import utils.ExtentManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Browser-side performance of each navigation (page.metrics.enabled=true).
+ *
+ * A single async script reads Navigation Timing and Paint Timing once the load event has fired:
+ * TTFB, DOMContentLoaded, load, FCP, LCP, the number of resources and the transferred bytes.
+ * The result is logged to the current Extent test and appended as one JSON line to
+ * reports/metrics/&lt;run&gt;/page-metrics.jsonl, so runs can be compared across builds.
+ *
+ * Values are milliseconds from the start of the navigation; -1 when the browser does not
+ * expose them (e.g. LCP outside Chromium, or cross-origin resources without Timing-Allow-Origin).
+ *
+ * Browsers keep only 250 Resource Timing entries per page by default. On Chrome/Edge a DevTools
+ * script raises the buffer to RESOURCE_BUFFER_SIZE before any page script runs; elsewhere, or on
+ * heavier pages, the count and bytes are a lower bound and the request count is shown as "N+".
+ */
+public class PageMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(PageMetrics.class);
+    private static final String METRICS_FILE = "page-metrics.jsonl";
+    private static final int RESOURCE_BUFFER_SIZE = 5000;
+    private static final int DEFAULT_RESOURCE_BUFFER_SIZE = 250;
+
+    // Runs on every new document, before the page's own scripts
+    private static final String BUFFER_SCRIPT =
+            "try { performance.setResourceTimingBufferSize(" + RESOURCE_BUFFER_SIZE + ");" +
+            " window.__pageMetricsResourceBuffer = " + RESOURCE_BUFFER_SIZE + "; } catch (e) {}";
+
+    // Waits for the load event at most 5 s and gives buffered LCP entries 50 ms to be delivered
+    private static final String METRICS_SCRIPT =
+            "var callback = arguments[arguments.length - 1], sent = false;" +
+            "function send(result) { if (!sent) { sent = true; callback(result); } }" +
+            "function round(value) { return typeof value === 'number' && value > 0 ? Math.round(value) : -1; }" +
+            "function collect() {" +
+            "  var perf = window.performance;" +
+            "  if (!perf || !perf.getEntriesByType) { send(null); return; }" +
+            "  var nav = perf.getEntriesByType('navigation')[0] || {};" +
+            "  var fcp = perf.getEntriesByType('paint').filter(function(p) { return p.name === 'first-contentful-paint'; })[0];" +
+            "  var resources = perf.getEntriesByType('resource');" +
+            "  var capacity = window.__pageMetricsResourceBuffer || " + DEFAULT_RESOURCE_BUFFER_SIZE + ";" +
+            "  var bytes = nav.transferSize || 0;" +
+            "  resources.forEach(function(r) { bytes += r.transferSize || 0; });" +
+            "  var result = { url: location.href, ttfb: round(nav.responseStart), domContentLoaded: round(nav.domContentLoadedEventEnd)," +
+            "    load: round(nav.loadEventEnd), fcp: round(fcp && fcp.startTime), lcp: -1, resources: resources.length + 1," +
+            "    resourcesCapped: resources.length >= capacity, bytes: bytes };" +
+            "  try {" +
+            "    var observer = new PerformanceObserver(function(list) {" +
+            "      var entries = list.getEntries();" +
+            "      if (entries.length) { result.lcp = round(entries[entries.length - 1].startTime); }" +
+            "    });" +
+            "    observer.observe({ type: 'largest-contentful-paint', buffered: true });" +
+            "    setTimeout(function() { observer.disconnect(); send(result); }, 50);" +
+            "  } catch (e) { send(result); }" +
+            "}" +
+            "if (document.readyState === 'complete') { setTimeout(collect, 0); }" +
+            "else { window.addEventListener('load', function() { setTimeout(collect, 0); }); setTimeout(collect, 5000); }";
+
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<Metrics> lastMetrics = new ThreadLocal<>();
+
+    public static boolean isEnabled() {
+        return ConfigReader.isPageMetricsEnabled();
+    }
+
+    /**
+     * Performance numbers of one navigation
+     */
+    public static class Metrics {
+        private final String page;
+        private final String url;
+        private final long timestamp;
+        private final long ttfbMillis;
+        private final long domContentLoadedMillis;
+        private final long loadMillis;
+        private final long fcpMillis;
+        private final long lcpMillis;
+        private final long resources;
+        private final boolean resourcesCapped;
+        private final long transferBytes;
+
+        Metrics(String page, Map<String, Object> values) {
+            this.page = page;
+            this.url = String.valueOf(values.get("url"));
+            this.timestamp = System.currentTimeMillis();
+            this.ttfbMillis = number(values.get("ttfb"));
+            this.domContentLoadedMillis = number(values.get("domContentLoaded"));
+            this.loadMillis = number(values.get("load"));
+            this.fcpMillis = number(values.get("fcp"));
+            this.lcpMillis = number(values.get("lcp"));
+            this.resources = number(values.get("resources"));
+            this.resourcesCapped = Boolean.TRUE.equals(values.get("resourcesCapped"));
+            this.transferBytes = number(values.get("bytes"));
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getTtfbMillis() {
+            return ttfbMillis;
+        }
+
+        public long getDomContentLoadedMillis() {
+            return domContentLoadedMillis;
+        }
+
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        public long getFcpMillis() {
+            return fcpMillis;
+        }
+
+        public long getLcpMillis() {
+            return lcpMillis;
+        }
+
+        /**
+         * Requests of the page, the document included
+         */
+        public long getResources() {
+            return resources;
+        }
+
+        /**
+         * True when the Resource Timing buffer filled up: requests and bytes are a lower bound
+         */
+        public boolean isResourcesCapped() {
+            return resourcesCapped;
+        }
+
+        public long getTransferBytes() {
+            return transferBytes;
+        }
+
+        public String toHtml() {
+            return "<div style='font-size: 11px; color: #999;'>&#128200; " + escape(page)
+                    + ": TTFB " + format(ttfbMillis) + " &middot; DCL " + format(domContentLoadedMillis)
+                    + " &middot; load " + format(loadMillis) + " &middot; FCP " + format(fcpMillis)
+                    + " &middot; LCP " + format(lcpMillis) + " &middot; " + resources + (resourcesCapped ? "+" : "") + " requests, "
+                    + transferBytes / 1024 + " KB</div>";
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("page", page);
+            map.put("url", url);
+            map.put("timestamp", timestamp);
+            map.put("ttfbMs", ttfbMillis);
+            map.put("domContentLoadedMs", domContentLoadedMillis);
+            map.put("loadMs", loadMillis);
+            map.put("fcpMs", fcpMillis);
+            map.put("lcpMs", lcpMillis);
+            map.put("resources", resources);
+            map.put("resourcesCapped", resourcesCapped);
+            map.put("transferBytes", transferBytes);
+            return map;
+        }
+
+        private static String format(long millis) {
+            return millis >= 0 ? millis + " ms" : "n/a";
+        }
+
+        private static String escape(String text) {
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+        }
+
+        private static long number(Object value) {
+            return value instanceof Number ? ((Number) value).longValue() : -1;
+        }
+    }
+
+    /**
+     * Raises the Resource Timing buffer of every page the driver loads (Chrome/Edge only)
+     */
+    static void attach(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        DevTools devTools = DevToolsSessions.get(driver);
+        if (devTools == null) {
+            return;
+        }
+        try {
+            devTools.send(new Command<Void>("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", BUFFER_SCRIPT)));
+        } catch (RuntimeException e) {
+            logger.debug("Could not raise the Resource Timing buffer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Name written next to the metrics of the test running on this thread
+     */
+    static void startTest(String testName) {
+        currentTest.set(testName);
+        lastMetrics.remove();
+    }
+
+    static void endTest() {
+        currentTest.remove();
+        lastMetrics.remove();
+    }
+
+    /**
+     * Metrics of the last navigation of the current test, or null
+     */
+    public static Metrics getLast() {
+        return lastMetrics.get();
+    }
+
+    /**
+     * Measures the page the driver is on, reports it and appends it to the metrics file.
+     * Never fails the test: if the script cannot run, null is returned and {@link #getLast()}
+     * is cleared, so the metrics of an earlier page are not taken for this one.
+     */
+    @SuppressWarnings("unchecked")
+    public static Metrics capture(WebDriver driver, String pageName) {
+        lastMetrics.remove();
+        if (!isEnabled() || !(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        Metrics metrics;
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(METRICS_SCRIPT);
+            if (!(result instanceof Map)) {
+                return null;
+            }
+            metrics = new Metrics(pageName, (Map<String, Object>) result);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read page metrics for {}: {}", pageName, e.getMessage());
+            return null;
+        }
+        lastMetrics.set(metrics);
+        ExtentManager.log(Status.INFO, metrics.toHtml());
+        append(metrics);
+        logger.debug("Page metrics {}", metrics.toMap());
+        return metrics;
+    }
+
+    private static synchronized void append(Metrics metrics) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("test", currentTest.get());
+        line.putAll(metrics.toMap());
+        Path directory = Paths.get(ExtentManager.getReportDirectory(), "metrics", ExtentManager.getRunTimestamp());
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(METRICS_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                new Json().newOutput(writer).setPrettyPrint(false).write(line);
+                writer.write("\n");
+            }
+        } catch (IOException e) {
+            logger.warn("Error writing page metrics: {}", e.getMessage());
+        }
+    }
+}
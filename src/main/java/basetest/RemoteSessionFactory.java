@@ -0,0 +1,172 @@
+package basetest;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.LocalFileDetector;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates RemoteWebDriver sessions against a Selenium Grid (execution.mode=remote).
+ * - grid.max.sessions caps the sessions this JVM keeps open at once; extra threads wait
+ *   for a free slot (up to grid.session.timeout seconds) instead of queueing on the Grid
+ * - failed session requests are retried grid.session.retries times, waiting
+ *   grid.session.retry.delay.ms (multiplied by the attempt number) between attempts
+ *
+ * The slot is released when the session is quit, wherever that happens (tearDown, pool, scope cleanup),
+ * or right away when no session could be created, whatever the error.
+ */
+public class RemoteSessionFactory {
+    private static final Logger logger = LoggerFactory.getLogger(RemoteSessionFactory.class);
+
+    private static volatile Semaphore sessionSlots;
+    private static final AtomicLong created = new AtomicLong();
+    private static final AtomicLong retried = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong totalWaitMillis = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return ConfigReader.isRemoteExecution();
+    }
+
+    /**
+     * Opens a Grid session for the given browser options
+     */
+    public static RemoteWebDriver create(Capabilities capabilities) {
+        long waitStart = System.currentTimeMillis();
+        Semaphore slots = getSessionSlots();
+        if (slots != null) {
+            try {
+                if (!slots.tryAcquire(ConfigReader.getGridSessionTimeout(), TimeUnit.SECONDS)) {
+                    failed.incrementAndGet();
+                    throw new WebDriverException("No free Grid session slot after "
+                            + ConfigReader.getGridSessionTimeout() + "s (grid.max.sessions="
+                            + ConfigReader.getGridMaxSessions() + ")");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for a Grid session slot", e);
+            }
+        }
+        totalWaitMillis.addAndGet(System.currentTimeMillis() - waitStart);
+
+        // Until a driver is returned the slot belongs to this call; afterwards GridWebDriver.quit gives it back
+        boolean handedOver = false;
+        try {
+            URL gridUrl = getGridUrl();
+            int attempts = ConfigReader.getGridSessionRetries() + 1;
+            WebDriverException lastError = null;
+            for (int attempt = 1; attempt <= attempts; attempt++) {
+                long start = System.currentTimeMillis();
+                try {
+                    GridWebDriver driver = new GridWebDriver(gridUrl, capabilities, slots);
+                    driver.setFileDetector(new LocalFileDetector());
+                    created.incrementAndGet();
+                    logger.info("Grid session {} created for {} in {} ms (attempt {}/{})", driver.getSessionId(),
+                            capabilities.getBrowserName(), System.currentTimeMillis() - start, attempt, attempts);
+                    handedOver = true;
+                    return driver;
+                } catch (WebDriverException e) {
+                    lastError = e;
+                    logger.warn("Grid session request for {} failed (attempt {}/{}): {}",
+                            capabilities.getBrowserName(), attempt, attempts, firstLine(e.getMessage()));
+                    if (attempt < attempts) {
+                        retried.incrementAndGet();
+                        sleepBeforeRetry(ConfigReader.getGridSessionRetryDelayMillis() * attempt, e);
+                    }
+                }
+            }
+            throw lastError;
+        } finally {
+            if (!handedOver) {
+                failed.incrementAndGet();
+                if (slots != null) {
+                    slots.release();
+                }
+            }
+        }
+    }
+
+    public static String getStats() {
+        return String.format("grid=%s, created=%d, retries=%d, failed=%d, slot wait=%d ms",
+                ConfigReader.getGridUrl(), created.get(), retried.get(), failed.get(), totalWaitMillis.get());
+    }
+
+    private static Semaphore getSessionSlots() {
+        int maxSessions = ConfigReader.getGridMaxSessions();
+        if (maxSessions <= 0) {
+            return null;
+        }
+        if (sessionSlots == null) {
+            synchronized (RemoteSessionFactory.class) {
+                if (sessionSlots == null) {
+                    sessionSlots = new Semaphore(maxSessions, true);
+                }
+            }
+        }
+        return sessionSlots;
+    }
+
+    private static URL getGridUrl() {
+        try {
+            return new URL(ConfigReader.getGridUrl());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid grid.url: " + ConfigReader.getGridUrl(), e);
+        }
+    }
+
+    /**
+     * Waits before the next attempt; an interrupt stops the retries
+     */
+    private static void sleepBeforeRetry(long millis, WebDriverException lastError) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            WebDriverException interrupted = new WebDriverException("Interrupted while waiting to retry the Grid session request", e);
+            interrupted.addSuppressed(lastError);
+            throw interrupted;
+        }
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    /**
+     * RemoteWebDriver that gives its session slot back exactly once when quit
+     */
+    static class GridWebDriver extends RemoteWebDriver {
+        private final Semaphore slots;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        GridWebDriver(URL gridUrl, Capabilities capabilities, Semaphore slots) {
+            super(gridUrl, capabilities);
+            this.slots = slots;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                if (slots != null && released.compareAndSet(false, true)) {
+                    slots.release();
+                }
+            }
+        }
+    }
+}
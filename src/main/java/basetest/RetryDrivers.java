@@ -0,0 +1,83 @@
+package basetest;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the browser of a failed attempt over to its retry (retry.max.attempts &gt; 1), so the
+ * retry starts on a warm session instead of launching a new browser.
+ *
+ * The driver is reset like a reused session (windows, cookies, storage, base URL) and parked
+ * under the retry key until the next attempt of the same method takes it. Drivers that fail the
+ * reset or the health check are quit; anything still parked when the suite ends is quit too.
+ * Pooled or scoped drivers keep their ownership: the final attempt hands them back as usual.
+ */
+class RetryDrivers {
+    private static final Logger logger = LoggerFactory.getLogger(RetryDrivers.class);
+
+    private static final Map<String, WebDriver> parked = new ConcurrentHashMap<>();
+    private static final AtomicLong kept = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+
+    /**
+     * Resets the driver and keeps it for the next attempt
+     *
+     * @return false if the driver could not be reset and must be disposed of by the caller
+     */
+    static boolean keep(String retryKey, WebDriver driver, String baseUrl) {
+        if (!DriverPool.resetState(driver, baseUrl)) {
+            logger.warn("Could not reset driver for retry of {}, the retry will launch a fresh one", retryKey);
+            return false;
+        }
+        WebDriver previous = parked.put(retryKey, driver);
+        if (previous != null && previous != driver) {
+            quitQuietly(previous);
+        }
+        kept.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Takes the driver kept for this retry, or null if there is none or it is no longer alive
+     */
+    static WebDriver take(String retryKey) {
+        WebDriver driver = parked.remove(retryKey);
+        if (driver == null) {
+            return null;
+        }
+        if (!DriverPool.isHealthy(driver)) {
+            logger.warn("Discarding dead driver kept for retry of {}", retryKey);
+            quitQuietly(driver);
+            return null;
+        }
+        reused.incrementAndGet();
+        logger.debug("Retrying {} on the warm driver of the failed attempt", retryKey);
+        return driver;
+    }
+
+    static void closeAll() {
+        parked.keySet().forEach(key -> {
+            WebDriver driver = parked.remove(key);
+            if (driver != null) {
+                quitQuietly(driver);
+            }
+        });
+    }
+
+    static String getStats() {
+        return String.format("kept=%d, reused=%d", kept.get(), reused.get());
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error quitting driver: {}", e.getMessage());
+        }
+    }
+}
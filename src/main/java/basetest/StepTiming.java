@@ -0,0 +1,117 @@
+package basetest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timing captured for a single report step. Times are taken when the step is created,
+ * so BUFFER steps keep their original timing even when they are committed later.
+ */
+public class StepTiming {
+    private final String description;
+    private final boolean passed;
+    private final long startMillis;
+    private final long endMillis;
+    private final long actionMillis;
+    private long screenshotMillis;
+    private NetworkRecorder.StepNetwork network;
+
+    /**
+     * @param startMillis  Epoch millis when the step started (end of the previous step)
+     * @param endMillis    Epoch millis when the step was reported, before any screenshot
+     * @param actionMillis Time spent on the WebDriver action, or -1 when not measured
+     */
+    public StepTiming(String description, boolean passed, long startMillis, long endMillis, long actionMillis) {
+        this.description = description;
+        this.passed = passed;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.actionMillis = actionMillis;
+    }
+
+    void setScreenshotMillis(long screenshotMillis) {
+        this.screenshotMillis = screenshotMillis;
+    }
+
+    void setNetwork(NetworkRecorder.StepNetwork network) {
+        this.network = network;
+    }
+
+    NetworkRecorder.StepNetwork getStepNetwork() {
+        return network;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public long getActionMillis() {
+        return actionMillis;
+    }
+
+    public long getScreenshotMillis() {
+        return screenshotMillis;
+    }
+
+    /**
+     * Requests that finished during the step, or null when the network is not recorded.
+     * Resolved on the first call, normally when the step is written to the report.
+     */
+    public NetworkRecorder.Summary getNetwork() {
+        return network != null ? network.resolve() : null;
+    }
+
+    /**
+     * Step duration including the screenshot capture
+     */
+    public long getTotalMillis() {
+        return Math.max(0, endMillis - startMillis) + screenshotMillis;
+    }
+
+    /**
+     * Small inline block appended to the step in the Extent report
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder("<div style='font-size: 11px; color: #999;'>&#9201; ")
+                .append(getTotalMillis()).append(" ms");
+        if (actionMillis >= 0) {
+            html.append(" &middot; action ").append(actionMillis).append(" ms");
+        }
+        if (screenshotMillis > 0) {
+            html.append(" &middot; screenshot ").append(screenshotMillis).append(" ms");
+        }
+        NetworkRecorder.Summary summary = getNetwork();
+        if (summary != null && summary.getRequests() > 0) {
+            html.append(" &middot; network ").append(summary.toHtml());
+        }
+        return html.append("</div>").toString();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("description", description);
+        map.put("status", passed ? "PASS" : "FAIL");
+        map.put("start", startMillis);
+        map.put("end", endMillis);
+        map.put("totalMs", getTotalMillis());
+        map.put("actionMs", actionMillis);
+        map.put("screenshotMs", screenshotMillis);
+        NetworkRecorder.Summary summary = getNetwork();
+        if (summary != null) {
+            map.put("network", summary.toMap());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,93 @@
+package basetest;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+import utils.ExtentManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the timing of every step written for the current test and exports it as
+ * reports/timings/&lt;run&gt;/&lt;test&gt;.json plus one CSV row per step in
+ * reports/timings/&lt;run&gt;/step-timings.csv when step.timing.export=true.
+ */
+public class StepTimingRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(StepTimingRecorder.class);
+    private static final String CSV_HEADER = "test,step,status,start,end,total_ms,action_ms,screenshot_ms\n";
+
+    private static final ThreadLocal<List<StepTiming>> timings = ThreadLocal.withInitial(ArrayList::new);
+
+    public static void record(StepTiming timing) {
+        timings.get().add(timing);
+    }
+
+    public static List<StepTiming> getTimings() {
+        return new ArrayList<>(timings.get());
+    }
+
+    /**
+     * Writes the breakdown for the finished test and clears the recorded steps
+     */
+    public static void export(String testName) {
+        List<StepTiming> steps = timings.get();
+        timings.remove();
+        if (steps.isEmpty() || !ConfigReader.isStepTimingExportEnabled()) {
+            return;
+        }
+
+        Path directory = Paths.get(ExtentManager.getReportDirectory(), "timings", ExtentManager.getRunTimestamp());
+        String safeName = testName.replaceAll("[^A-Za-z0-9._-]", "_");
+
+        List<Map<String, Object>> stepMaps = new ArrayList<>();
+        long total = 0;
+        for (StepTiming step : steps) {
+            stepMaps.add(step.toMap());
+            total += step.getTotalMillis();
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("test", testName);
+        document.put("totalMs", total);
+        document.put("steps", stepMaps);
+
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(safeName + "_" + steps.get(0).getStartMillis() + ".json"),
+                    new Json().toJson(document).getBytes(StandardCharsets.UTF_8));
+            appendCsv(directory.resolve("step-timings.csv"), testName, steps);
+        } catch (IOException e) {
+            logger.warn("Error exporting step timings for {}: {}", testName, e.getMessage());
+        }
+    }
+
+    private static synchronized void appendCsv(Path csv, String testName, List<StepTiming> steps) throws IOException {
+        boolean newFile = !Files.exists(csv);
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write(CSV_HEADER);
+            }
+            for (StepTiming step : steps) {
+                writer.write(csvField(testName) + "," + csvField(step.getDescription()) + ","
+                        + (step.isPassed() ? "PASS" : "FAIL") + "," + step.getStartMillis() + "," + step.getEndMillis() + ","
+                        + step.getTotalMillis() + "," + step.getActionMillis() + "," + step.getScreenshotMillis() + "\n");
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        String text = value == null ? "" : value.replaceAll("<[^>]*>", " ");
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
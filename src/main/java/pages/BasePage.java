@@ -1,16 +1,29 @@
 package pages;
 
 import basetest.BaseTest;
+import basetest.BaseTest.BufferAction;
 import basetest.BaseTest.StepMode;
+import basetest.NetworkBlockProfile;
+import basetest.NetworkBlocker;
+import basetest.PageMetrics;
+import com.aventstack.extentreports.Status;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+import utils.ExtentManager;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public abstract class BasePage {
     protected WebDriver driver;
@@ -21,6 +34,16 @@ public abstract class BasePage {
     protected String pageUrl;
     protected By validationLocator;
     protected String pageName;
+    // Perfil de bloqueo de peticiones propio de la página (null = perfil de la suite)
+    protected NetworkBlockProfile networkBlockProfile;
+    // Presupuesto de rendimiento de la página y de sus acciones con reporte (null = sin presupuesto)
+    protected PerformanceBudget performanceBudget;
+
+    // Caché de elementos por locator, desactivada salvo que la página la habilite
+    private ElementCache elementCache;
+    // Revalidación de un elemento cacheado equivalente a elementToBeClickable y visibilityOfElementLocated
+    private static final Predicate<WebElement> CLICKABLE = element -> element.isDisplayed() && element.isEnabled();
+    private static final Predicate<WebElement> VISIBLE = WebElement::isDisplayed;
 
     public BasePage(WebDriver driver){
         if (driver == null){
@@ -32,14 +55,62 @@ public abstract class BasePage {
 
     public void click(By locator) {
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
-            element.click();
+            withElement(locator, ExpectedConditions::elementToBeClickable, CLICKABLE, WebElement::click);
         } catch (Exception e) {
             System.out.println("Fallo al hacer clic en: " + locator);
             throw e;
         }
     }
 
+    /**
+     * Envía teclas a un elemento visible (por ejemplo Keys.ENTER) sin limpiarlo antes
+     */
+    public void sendKeys(By locator, CharSequence... keys) {
+        withElement(locator, ExpectedConditions::visibilityOfElementLocated, VISIBLE, element -> element.sendKeys(keys));
+    }
+
+    /**
+     * Habilita la caché de elementos para esta página: las acciones repetidas sobre el mismo
+     * locator reutilizan el elemento en lugar de repetir la búsqueda con el wait.
+     * Llamar desde el constructor de la página.
+     */
+    protected void enableElementCache() {
+        if (elementCache == null) {
+            elementCache = new ElementCache();
+        }
+    }
+
+    /**
+     * @return la caché de la página (con sus contadores), o null si no está habilitada
+     */
+    public ElementCache getElementCache() {
+        return elementCache;
+    }
+
+    /**
+     * Descarta los elementos cacheados; se llama automáticamente al navegar desde la página
+     */
+    protected void invalidateElementCache() {
+        if (elementCache != null) {
+            elementCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Ejecuta una acción sobre el elemento, usando la caché si está habilitada
+     * @param condition Condición del wait usada para buscar el elemento
+     * @param usable    La misma condición evaluada sobre un elemento cacheado, sin volver a buscarlo
+     */
+    protected void withElement(By locator, Function<By, ExpectedCondition<WebElement>> condition,
+                               Predicate<WebElement> usable, Consumer<WebElement> action) {
+        Function<By, WebElement> lookup = l -> wait.until(condition.apply(l));
+        if (elementCache == null) {
+            action.accept(lookup.apply(locator));
+        } else {
+            elementCache.run(locator, usable, lookup, action);
+        }
+    }
+
     public static void pause(int seconds) {
         try {
             Thread.sleep(seconds * 1000);
@@ -48,29 +119,117 @@ public abstract class BasePage {
         }
     }
 
+    /**
+     * Espera a que la página esté lista en lugar de usar Thread.sleep.
+     * Usar después de acciones que disparan navegación o cargas asíncronas.
+     * @return true si la página quedó lista antes del timeout
+     */
+    protected boolean waitForPageReady() {
+        return PageReadiness.await(driver);
+    }
+
+    /**
+     * Marca la página actual antes de una acción que navega, para que
+     * {@link #waitForPageReady(PageReadiness.Marker)} no se dé por satisfecho con el documento anterior
+     */
+    protected PageReadiness.Marker markPage() {
+        return PageReadiness.mark(driver);
+    }
+
+    /**
+     * Espera a que la página cambie respecto a la marca y a que esté lista
+     * @return true si la página quedó lista antes del timeout
+     */
+    protected boolean waitForPageReady(PageReadiness.Marker marker) {
+        return PageReadiness.awaitAfter(driver, marker);
+    }
+
     /**
      * Método goTo que usa las variables definidas por cada página
      * Cada página solo necesita definir: pageUrl, validationLocator, y pageName
      */
     public void goTo() throws InterruptedException {
+        PageMetrics.Metrics metrics;
         try {
             // Validar que la página haya definido los valores necesarios
             if (pageUrl == null || validationLocator == null || pageName == null) {
                 throw new RuntimeException("La página debe definir pageUrl, validationLocator y pageName");
             }
 
+            long start = System.currentTimeMillis();
+            invalidateElementCache();
+            applyNetworkBlockProfile();
             driver.get(pageUrl);
             wait.until(ExpectedConditions.presenceOfElementLocated(validationLocator));
 
-            // Pequeña pausa para asegurar que la página esté completamente cargada
-            Thread.sleep(500);
+            // Esperar a que la página termine de cargar (sin peticiones pendientes y DOM estable)
+            waitForPageReady();
 
-            BaseTest.createStep("Navegando a " + pageName, true, true, StepMode.IMMEDIATE);
+            BaseTest.createStep("Navegando a " + pageName, true, true, StepMode.IMMEDIATE, System.currentTimeMillis() - start);
+            metrics = PageMetrics.capture(driver, pageName);
 
         } catch (Exception e) {
             BaseTest.createStep("Error al navegar a " + pageName + ": " + e.getMessage(), false, true, StepMode.IMMEDIATE);
             throw e;
         }
+        // Only this navigation's metrics: null (capture failed or disabled) skips the check
+        checkPageBudget(metrics);
+    }
+
+    /**
+     * Compara las métricas de la última navegación con el presupuesto de la página
+     * @throws AssertionError Si se supera y budget.violation.status=fail
+     */
+    protected void checkPageBudget(PageMetrics.Metrics metrics) {
+        if (performanceBudget == null || !performanceBudget.hasPageLimits()) {
+            return;
+        }
+        if (metrics == null) {
+            logger.debug("Sin métricas de página para comprobar el presupuesto de {} (page.metrics.enabled)", pageName);
+            return;
+        }
+        List<String> unchecked = performanceBudget.uncheckedPage(metrics);
+        if (!unchecked.isEmpty()) {
+            // Siempre WARNING: no es un incumplimiento, pero tampoco se puede dar por bueno
+            String message = "Presupuesto de rendimiento no verificable en " + pageName
+                    + " (buffer de Resource Timing lleno): " + String.join("; ", unchecked);
+            logger.warn(message);
+            ExtentManager.log(Status.WARNING, message);
+        }
+        reportBudgetViolations(pageName, performanceBudget.checkPage(metrics), StepMode.IMMEDIATE);
+    }
+
+    /**
+     * Compara la duración de una acción con el presupuesto del step o, si no tiene, con el de la página
+     * @throws AssertionError Si se supera y budget.violation.status=fail
+     */
+    protected void checkActionBudget(String description, long actionMillis, PerformanceBudget stepBudget, StepMode mode) {
+        PerformanceBudget budget = stepBudget != null ? stepBudget : performanceBudget;
+        if (budget == null || !budget.hasActionLimit()) {
+            return;
+        }
+        reportBudgetViolations(description, budget.checkAction(actionMillis), mode);
+    }
+
+    /**
+     * Registra los presupuestos superados como WARNING, o como step fallido (con screenshot)
+     * cuando budget.violation.status=fail
+     */
+    private void reportBudgetViolations(String subject, List<String> violations, StepMode mode) {
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Presupuesto de rendimiento superado en " + subject + ": " + String.join("; ", violations);
+        logger.warn(message);
+        if (ConfigReader.isBudgetViolationFailure()) {
+            if (mode == StepMode.IMMEDIATE) {
+                BaseTest.createStep(message, false, true, StepMode.IMMEDIATE);
+            } else {
+                BaseTest.processBuffer(BufferAction.COMMIT_WITH_FAILURE, message, true);
+            }
+            throw new AssertionError(message);
+        }
+        ExtentManager.log(Status.WARNING, message);
     }
 
     /**
@@ -82,9 +241,20 @@ public abstract class BasePage {
             throw new RuntimeException("pageUrl no está definida para " + this.getClass().getSimpleName());
         }
 
+        invalidateElementCache();
+        applyNetworkBlockProfile();
         driver.get(pageUrl);
     }
 
+    /**
+     * Activa el perfil de bloqueo de la página, o el de la suite si la página no define uno
+     */
+    protected void applyNetworkBlockProfile() {
+        if (NetworkBlocker.isEnabled()) {
+            NetworkBlocker.apply(driver, networkBlockProfile != null ? networkBlockProfile : NetworkBlockProfile.fromConfig());
+        }
+    }
+
 
     /**
      * Método para hacer click con reporte usando el sistema unificado
@@ -93,14 +263,26 @@ public abstract class BasePage {
      * @param mode Modo de procesamiento del step
      */
     public void clickWithReport(By locator, String description, StepMode mode) {
+        clickWithReport(locator, description, mode, null);
+    }
+
+    /**
+     * clickWithReport con un presupuesto propio para este step
+     * @param stepBudget Presupuesto del step (null = el de la página)
+     */
+    public void clickWithReport(By locator, String description, StepMode mode, PerformanceBudget stepBudget) {
+        long start = System.currentTimeMillis();
+        long actionMillis;
         try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
-            element.click();
-            BaseTest.createStep("Click exitoso: " + description, true, true, mode);
+            withElement(locator, ExpectedConditions::elementToBeClickable, CLICKABLE, WebElement::click);
+            actionMillis = System.currentTimeMillis() - start;
+            BaseTest.createStep("Click exitoso: " + description, true, true, mode, actionMillis);
         } catch (Exception e) {
-            BaseTest.createStep("Error al hacer click: " + description + " - " + e.getMessage(), false, true, mode);
+            BaseTest.createStep("Error al hacer click: " + description + " - " + e.getMessage(), false, true, mode,
+                    System.currentTimeMillis() - start);
             throw e;
         }
+        checkActionBudget(description, actionMillis, stepBudget, mode);
     }
 
     /**
@@ -111,15 +293,29 @@ public abstract class BasePage {
      * @param mode Modo de procesamiento del step
      */
     public void sendKeysWithReport(By locator, String text, String description, StepMode mode) {
+        sendKeysWithReport(locator, text, description, mode, null);
+    }
+
+    /**
+     * sendKeysWithReport con un presupuesto propio para este step
+     * @param stepBudget Presupuesto del step (null = el de la página)
+     */
+    public void sendKeysWithReport(By locator, String text, String description, StepMode mode, PerformanceBudget stepBudget) {
+        long start = System.currentTimeMillis();
+        long actionMillis;
         try {
-            WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-            element.clear();
-            element.sendKeys(text);
-            BaseTest.createStep("Texto ingresado: " + description, true, true, mode);
+            withElement(locator, ExpectedConditions::visibilityOfElementLocated, VISIBLE, element -> {
+                element.clear();
+                element.sendKeys(text);
+            });
+            actionMillis = System.currentTimeMillis() - start;
+            BaseTest.createStep("Texto ingresado: " + description, true, true, mode, actionMillis);
         } catch (Exception e) {
-            BaseTest.createStep("Error al ingresar texto: " + description + " - " + e.getMessage(), false, true, mode);
+            BaseTest.createStep("Error al ingresar texto: " + description + " - " + e.getMessage(), false, true, mode,
+                    System.currentTimeMillis() - start);
             throw e;
         }
+        checkActionBudget(description, actionMillis, stepBudget, mode);
     }
 
     /**
@@ -138,4 +334,67 @@ public abstract class BasePage {
             throw new AssertionError(failureMessage);
         }
     }
+
+    /**
+     * Validación con reporte a partir de un lote de comprobaciones ya evaluado
+     * @param result Resultado de checkElements/awaitElements
+     * @param description Qué se está validando
+     * @param mode Modo de procesamiento del step
+     * @throws AssertionError Si alguna comprobación falla
+     */
+    public void validateWithReport(ElementCheckResult result, String description, StepMode mode) {
+        validateWithReport(result.allPassed(),
+                description + " (" + result.getSummary() + ")",
+                description + ": " + result.getFailureSummary(), mode);
+    }
+
+    /**
+     * Evalúa varias comprobaciones (presencia, visibilidad, texto, atributo, título, URL)
+     * en una sola llamada a executeScript, sin esperar
+     */
+    public ElementCheckResult checkElements(ElementCheck... checks) {
+        return ElementCheckEvaluator.evaluate(driver, Arrays.asList(checks));
+    }
+
+    /**
+     * Como checkElements, pero reevalúa el lote hasta que todas pasen o se agote el timeout configurado
+     */
+    public ElementCheckResult awaitElements(ElementCheck... checks) {
+        return ElementCheckEvaluator.await(driver, Arrays.asList(checks), Duration.ofSeconds(ConfigReader.getTimeout()));
+    }
+
+    /**
+     * Valida un lote de comprobaciones y lo registra en el reporte usando el buffer:
+     * las correctas se añaden como steps y, si alguna falla, se cierra con un único
+     * step de error (con screenshot) que lista los valores reales
+     * @param description Qué se está validando
+     * @param checks Comprobaciones a evaluar en una sola llamada de script
+     * @return true si todas las comprobaciones pasaron
+     */
+    public boolean validateElementsWithReport(String description, ElementCheck... checks) {
+        try {
+            ElementCheckResult result = awaitElements(checks);
+            for (ElementCheckResult.Outcome outcome : result.getOutcomes()) {
+                if (outcome.isPassed()) {
+                    BaseTest.createStep(outcome.describe(), true, false, StepMode.BUFFER);
+                }
+            }
+
+            if (result.allPassed()) {
+                BaseTest.createStep("Validación exitosa: " + description + " (" + result.getSummary() + ")",
+                        true, false, StepMode.BUFFER, result.getDurationMillis());
+                BaseTest.processBuffer(BufferAction.COMMIT_SUCCESS, null, false);
+                return true;
+            }
+
+            BaseTest.processBuffer(BufferAction.COMMIT_WITH_FAILURE,
+                    "Validación fallida: " + description + " (" + result.getSummary() + ")<br>"
+                            + result.getFailureSummary(), true);
+            return false;
+        } catch (Exception e) {
+            BaseTest.processBuffer(BufferAction.DISCARD_AND_FAIL,
+                    "Error durante validación de " + description + ": " + e.getMessage(), true);
+            return false;
+        }
+    }
 }
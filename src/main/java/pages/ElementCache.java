@@ -0,0 +1,132 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché de elementos por locator para una instancia de página (opt-in con
+ * {@link BasePage#enableElementCache()}).
+ * Un acierto evita la búsqueda y el sondeo del wait: solo se revalida el elemento ya encontrado
+ * con la misma condición que exige el wait (visible, habilitado), sin volver a localizarlo.
+ * Si el elemento quedó obsoleto (la página navegó o el DOM se re-renderizó) o ya no cumple
+ * la condición, se descarta y se vuelve a buscar con el wait, que espera a que la cumpla.
+ *
+ * Las instancias de página no se comparten entre hilos, así que la caché no es thread-safe;
+ * solo los contadores globales lo son.
+ */
+public class ElementCache {
+    private static final AtomicLong totalHits = new AtomicLong();
+    private static final AtomicLong totalMisses = new AtomicLong();
+    private static final AtomicLong totalStale = new AtomicLong();
+
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private long hits;
+    private long misses;
+    private long stale;
+
+    /**
+     * Ejecuta una acción sobre el elemento del locator
+     *
+     * @param usable Revalidación de un elemento cacheado equivalente a la condición del lookup
+     *               (p. ej. isDisplayed() &amp;&amp; isEnabled() para elementToBeClickable)
+     * @param lookup Búsqueda completa (normalmente un wait.until) usada en un fallo de caché
+     * @param action Acción sobre el elemento
+     */
+    public void run(By locator, Predicate<WebElement> usable, Function<By, WebElement> lookup, Consumer<WebElement> action) {
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            try {
+                if (usable.test(cached)) {
+                    action.accept(cached);
+                    hit();
+                    return;
+                }
+            } catch (StaleElementReferenceException | ElementNotInteractableException e) {
+                // Se vuelve a buscar abajo
+            }
+            // Obsoleto, oculto o deshabilitado: el wait vuelve a buscarlo y espera a que cumpla la condición
+            elements.remove(locator);
+            stale++;
+            totalStale.incrementAndGet();
+        }
+        action.accept(find(locator, lookup));
+    }
+
+    /**
+     * Devuelve el elemento cacheado o lo busca. El llamador debe tolerar que esté obsoleto.
+     */
+    public WebElement get(By locator, Function<By, WebElement> lookup) {
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            hit();
+            return cached;
+        }
+        return find(locator, lookup);
+    }
+
+    public void invalidate(By locator) {
+        elements.remove(locator);
+    }
+
+    /**
+     * Descarta todos los elementos (por ejemplo al navegar)
+     */
+    public void invalidateAll() {
+        elements.clear();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getStaleRefinds() {
+        return stale;
+    }
+
+    public String getStats() {
+        return formatStats(hits, misses, stale);
+    }
+
+    /**
+     * Contadores acumulados de todas las páginas en esta JVM
+     */
+    public static String getGlobalStats() {
+        return formatStats(totalHits.get(), totalMisses.get(), totalStale.get());
+    }
+
+    public static long getTotalLookups() {
+        return totalHits.get() + totalMisses.get();
+    }
+
+    private WebElement find(By locator, Function<By, WebElement> lookup) {
+        WebElement element = lookup.apply(locator);
+        elements.put(locator, element);
+        misses++;
+        totalMisses.incrementAndGet();
+        return element;
+    }
+
+    private void hit() {
+        hits++;
+        totalHits.incrementAndGet();
+    }
+
+    private static String formatStats(long hits, long misses, long stale) {
+        long lookups = hits + misses;
+        return String.format("hits=%d, misses=%d, re-finds=%d, hit rate=%d%%",
+                hits, misses, stale, lookups == 0 ? 0 : hits * 100 / lookups);
+    }
+}
@@ -0,0 +1,140 @@
+package pages;
+
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Comprobación sobre la página que se evalúa junto con otras en una sola llamada a executeScript.
+ * Se crean con los métodos de fábrica y se pasan a {@link BasePage#checkElements(ElementCheck...)}:
+ *
+ * <pre>
+ * checkElements(
+ *     ElementCheck.displayed(logo).as("Logo visible"),
+ *     ElementCheck.textContains(header, "Bienvenido"),
+ *     ElementCheck.titleContains("YouTube"));
+ * </pre>
+ */
+public class ElementCheck {
+
+    public enum Type {
+        PRESENT,
+        DISPLAYED,
+        TEXT_EQUALS,
+        TEXT_CONTAINS,
+        ATTRIBUTE_EQUALS,
+        TITLE_CONTAINS,
+        URL_CONTAINS
+    }
+
+    private final Type type;
+    private final By locator;
+    private final String attribute;
+    private final String expected;
+    private final String description;
+
+    private ElementCheck(Type type, By locator, String attribute, String expected, String description) {
+        this.type = type;
+        this.locator = locator;
+        this.attribute = attribute;
+        this.expected = expected;
+        this.description = description;
+    }
+
+    public static ElementCheck present(By locator) {
+        return new ElementCheck(Type.PRESENT, requireLocator(locator), null, null, null);
+    }
+
+    public static ElementCheck displayed(By locator) {
+        return new ElementCheck(Type.DISPLAYED, requireLocator(locator), null, null, null);
+    }
+
+    public static ElementCheck textEquals(By locator, String expected) {
+        return new ElementCheck(Type.TEXT_EQUALS, requireLocator(locator), null, expected, null);
+    }
+
+    public static ElementCheck textContains(By locator, String expected) {
+        return new ElementCheck(Type.TEXT_CONTAINS, requireLocator(locator), null, expected, null);
+    }
+
+    public static ElementCheck attributeEquals(By locator, String attribute, String expected) {
+        return new ElementCheck(Type.ATTRIBUTE_EQUALS, requireLocator(locator),
+                Objects.requireNonNull(attribute, "attribute"), expected, null);
+    }
+
+    public static ElementCheck titleContains(String expected) {
+        return new ElementCheck(Type.TITLE_CONTAINS, null, null, expected, null);
+    }
+
+    public static ElementCheck urlContains(String expected) {
+        return new ElementCheck(Type.URL_CONTAINS, null, null, expected, null);
+    }
+
+    /**
+     * Descripción que se usa en el step del reporte
+     */
+    public ElementCheck as(String description) {
+        return new ElementCheck(type, locator, attribute, expected, description);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String getExpected() {
+        return expected;
+    }
+
+    public String getDescription() {
+        if (description != null) {
+            return description;
+        }
+        switch (type) {
+            case PRESENT:
+                return "Elemento presente: " + locator;
+            case DISPLAYED:
+                return "Elemento visible: " + locator;
+            case TEXT_EQUALS:
+                return "Texto de " + locator + " igual a '" + expected + "'";
+            case TEXT_CONTAINS:
+                return "Texto de " + locator + " contiene '" + expected + "'";
+            case ATTRIBUTE_EQUALS:
+                return "Atributo " + attribute + " de " + locator + " igual a '" + expected + "'";
+            case TITLE_CONTAINS:
+                return "Título contiene '" + expected + "'";
+            default:
+                return "URL contiene '" + expected + "'";
+        }
+    }
+
+    /**
+     * Argumentos del script: [using, value, attribute] (using null para título y URL)
+     */
+    List<Object> toScriptArgument() {
+        if (locator == null) {
+            return Arrays.asList(null, null, null);
+        }
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator no soportado en checks por lotes: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return Arrays.asList(parameters.using(), String.valueOf(parameters.value()), attribute);
+    }
+
+    private static By requireLocator(By locator) {
+        if (locator == null) {
+            throw new IllegalArgumentException("locator no puede ser null");
+        }
+        return locator;
+    }
+}
@@ -0,0 +1,163 @@
+package pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evalúa un lote de {@link ElementCheck} con una sola llamada a executeScript,
+ * en lugar de un findElement/isDisplayed/getText/getTitle por comprobación.
+ * Los locators se resuelven en el navegador a partir de sus parámetros W3C
+ * (id, name, class name, tag name, css selector, xpath, link text, partial link text)
+ * y solo sobre el documento actual (no entra en iframes ni shadow DOM).
+ * Los atributos se leen con getAttribute del DOM.
+ */
+public class ElementCheckEvaluator {
+    private static final Duration POLLING_INTERVAL = Duration.ofMillis(100);
+
+    private static final String CHECKS_SCRIPT =
+            "var checks = arguments[0], results = [];" +
+            "function find(using, value) {" +
+            "  switch (using) {" +
+            "    case 'id': return document.getElementById(value);" +
+            "    case 'name': return document.getElementsByName(value)[0] || null;" +
+            "    case 'class name': return document.getElementsByClassName(value)[0] || null;" +
+            "    case 'tag name': return document.getElementsByTagName(value)[0] || null;" +
+            "    case 'css selector': return document.querySelector(value);" +
+            "    case 'xpath': return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "    case 'link text': case 'partial link text':" +
+            "      var links = document.getElementsByTagName('a');" +
+            "      for (var i = 0; i < links.length; i++) {" +
+            "        var t = (links[i].innerText || links[i].textContent || '').trim();" +
+            "        if (using === 'link text' ? t === value : t.indexOf(value) >= 0) return links[i];" +
+            "      }" +
+            "      return null;" +
+            "  }" +
+            "  throw new Error('Unsupported locator strategy: ' + using);" +
+            "}" +
+            "function visible(e) {" +
+            "  var s = window.getComputedStyle(e);" +
+            "  if (s.display === 'none' || s.visibility === 'hidden' || s.visibility === 'collapse' || parseFloat(s.opacity) === 0) return false;" +
+            "  var r = e.getBoundingClientRect();" +
+            "  return r.width > 0 && r.height > 0;" +
+            "}" +
+            "for (var c = 0; c < checks.length; c++) {" +
+            "  var check = checks[c];" +
+            "  if (check[0] === null) { results.push(null); continue; }" +
+            "  try {" +
+            "    var e = find(check[0], check[1]);" +
+            "    if (!e) { results.push({ present: false }); continue; }" +
+            "    var type = check[3];" +
+            "    results.push({" +
+            "      present: true," +
+            "      displayed: type === 'DISPLAYED' ? visible(e) : null," +
+            "      text: type.indexOf('TEXT') === 0 ? (e.innerText || e.textContent || '').trim() : null," +
+            "      attribute: check[2] ? e.getAttribute(check[2]) : null" +
+            "    });" +
+            "  } catch (err) { results.push({ present: false, error: String(err && err.message || err) }); }" +
+            "}" +
+            "return { title: document.title, url: window.location.href, results: results };";
+
+    /**
+     * Evalúa las comprobaciones una sola vez
+     */
+    public static ElementCheckResult evaluate(WebDriver driver, List<ElementCheck> checks) {
+        long start = System.currentTimeMillis();
+        return runScript(driver, checks, start);
+    }
+
+    /**
+     * Repite la evaluación (una llamada de script por sondeo) hasta que todas pasen o se agote el tiempo.
+     * Si se agota, devuelve el último resultado en lugar de lanzar una excepción.
+     */
+    public static ElementCheckResult await(WebDriver driver, List<ElementCheck> checks, Duration timeout) {
+        long start = System.currentTimeMillis();
+        AtomicReference<ElementCheckResult> last = new AtomicReference<>();
+        try {
+            return new WebDriverWait(driver, timeout, POLLING_INTERVAL).until(d -> {
+                ElementCheckResult result = runScript(d, checks, start);
+                last.set(result);
+                return result.allPassed() ? result : null;
+            });
+        } catch (TimeoutException e) {
+            return last.get() != null ? last.get() : runScript(driver, checks, start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ElementCheckResult runScript(WebDriver driver, List<ElementCheck> checks, long start) {
+        List<List<Object>> arguments = new ArrayList<>(checks.size());
+        for (ElementCheck check : checks) {
+            List<Object> argument = new ArrayList<>(check.toScriptArgument());
+            argument.add(check.getType().name());
+            arguments.add(argument);
+        }
+
+        Map<String, Object> response = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(CHECKS_SCRIPT, arguments);
+        String title = (String) response.get("title");
+        String url = (String) response.get("url");
+        List<Object> results = response.get("results") instanceof List
+                ? (List<Object>) response.get("results")
+                : Collections.emptyList();
+
+        List<ElementCheckResult.Outcome> outcomes = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            Map<String, Object> element = i < results.size() ? (Map<String, Object>) results.get(i) : null;
+            outcomes.add(toOutcome(checks.get(i), element, title, url));
+        }
+        return new ElementCheckResult(outcomes, title, url, System.currentTimeMillis() - start);
+    }
+
+    private static ElementCheckResult.Outcome toOutcome(ElementCheck check, Map<String, Object> element,
+                                                        String title, String url) {
+        switch (check.getType()) {
+            case TITLE_CONTAINS:
+                return new ElementCheckResult.Outcome(check, contains(title, check.getExpected()), title);
+            case URL_CONTAINS:
+                return new ElementCheckResult.Outcome(check, contains(url, check.getExpected()), url);
+            default:
+                break;
+        }
+
+        if (element == null || !Boolean.TRUE.equals(element.get("present"))) {
+            Object error = element != null ? element.get("error") : null;
+            return new ElementCheckResult.Outcome(check, false, error != null ? "error: " + error : "no encontrado");
+        }
+
+        switch (check.getType()) {
+            case PRESENT:
+                return new ElementCheckResult.Outcome(check, true, "presente");
+            case DISPLAYED:
+                boolean displayed = Boolean.TRUE.equals(element.get("displayed"));
+                return new ElementCheckResult.Outcome(check, displayed, displayed ? "visible" : "no visible");
+            case TEXT_EQUALS: {
+                String text = (String) element.get("text");
+                return new ElementCheckResult.Outcome(check, text != null && text.equals(check.getExpected()), text);
+            }
+            case TEXT_CONTAINS: {
+                String text = (String) element.get("text");
+                return new ElementCheckResult.Outcome(check, contains(text, check.getExpected()), text);
+            }
+            case ATTRIBUTE_EQUALS: {
+                String value = (String) element.get("attribute");
+                boolean matches = value == null ? check.getExpected() == null : value.equals(check.getExpected());
+                return new ElementCheckResult.Outcome(check, matches, value);
+            }
+            default:
+                throw new IllegalStateException("Tipo de comprobación no soportado: " + check.getType());
+        }
+    }
+
+    private static boolean contains(String actual, String expected) {
+        return actual != null && expected != null && actual.contains(expected);
+    }
+}
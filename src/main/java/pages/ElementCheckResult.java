@@ -0,0 +1,97 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado de evaluar un lote de {@link ElementCheck} en una sola llamada de script
+ */
+public class ElementCheckResult {
+
+    /**
+     * Resultado de una comprobación con el valor observado en la página
+     */
+    public static class Outcome {
+        private final ElementCheck check;
+        private final boolean passed;
+        private final String actual;
+
+        Outcome(ElementCheck check, boolean passed, String actual) {
+            this.check = check;
+            this.passed = passed;
+            this.actual = actual;
+        }
+
+        public ElementCheck getCheck() {
+            return check;
+        }
+
+        public boolean isPassed() {
+            return passed;
+        }
+
+        public String getActual() {
+            return actual;
+        }
+
+        public String getDescription() {
+            return check.getDescription();
+        }
+
+        /**
+         * Descripción para el reporte, con el valor real cuando la comprobación falla
+         */
+        public String describe() {
+            return passed ? getDescription() : getDescription() + " (actual: " + actual + ")";
+        }
+    }
+
+    private final List<Outcome> outcomes;
+    private final String title;
+    private final String url;
+    private final long durationMillis;
+
+    ElementCheckResult(List<Outcome> outcomes, String title, String url, long durationMillis) {
+        this.outcomes = Collections.unmodifiableList(new ArrayList<>(outcomes));
+        this.title = title;
+        this.url = url;
+        this.durationMillis = durationMillis;
+    }
+
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public boolean allPassed() {
+        return outcomes.stream().allMatch(Outcome::isPassed);
+    }
+
+    public List<Outcome> getFailures() {
+        return outcomes.stream().filter(outcome -> !outcome.isPassed()).collect(Collectors.toList());
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Tiempo total de la evaluación, incluyendo los reintentos si se esperó a que pasaran
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getSummary() {
+        return (outcomes.size() - getFailures().size()) + "/" + outcomes.size() + " comprobaciones correctas";
+    }
+
+    public String getFailureSummary() {
+        return getFailures().stream().map(Outcome::describe).collect(Collectors.joining("<br>"));
+    }
+}
@@ -2,6 +2,7 @@ package pages;
 
 import basetest.BaseTest;
 import basetest.BaseTest.StepMode;
+import basetest.NetworkBlockProfile;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
@@ -20,6 +21,18 @@ public class ExamplePage extends BasePage {
         this.pageUrl = "https://www.youtube.com";
         this.validationLocator = youtubeLogo;  // Usar el logo como elemento de validación
         this.pageName = "YouTube Home Page";
+
+        // searchBox se usa varias veces seguidas en searchFor
+        enableElementCache();
+
+        // Los tests solo necesitan el DOM: sin vídeo ni fuentes (con network.block.enabled=true)
+        this.networkBlockProfile = NetworkBlockProfile.fromConfig().blockTypes("Media", "Font");
+
+        // Presupuesto de rendimiento: se comprueba en goTo y en cada acción *WithReport
+        this.performanceBudget = PerformanceBudget.none()
+                .maxLoadMillis(10000)
+                .maxRequests(300)
+                .maxActionMillis(5000);
     }
 
     public void navigateTo() throws InterruptedException {
@@ -65,13 +78,13 @@ public class ExamplePage extends BasePage {
 
     public void searchFor(String searchTerm) {
         try {
+            // sendKeysWithReport ya limpia la caja; las tres acciones reutilizan el elemento cacheado
             clickWithReport(searchBox, "Click en caja de búsqueda", StepMode.BUFFER);
-            WebElement searchBoxElement = wait.until(ExpectedConditions.elementToBeClickable(searchBox));
-            searchBoxElement.clear();
             sendKeysWithReport(searchBox, searchTerm, "Ingresar término de búsqueda: " + searchTerm, StepMode.BUFFER);
-            searchBoxElement.sendKeys(Keys.ENTER);
+            PageReadiness.Marker beforeSearch = markPage();
+            sendKeys(searchBox, Keys.ENTER);
             BaseTest.createStep("Presionar Enter para buscar", true, false, StepMode.BUFFER);
-            Thread.sleep(2000);
+            waitForPageReady(beforeSearch);
             BaseTest.processBuffer(BaseTest.BufferAction.COMMIT_SUCCESS, null, false);
             
         } catch (Exception e) {
@@ -111,26 +124,10 @@ public class ExamplePage extends BasePage {
     }
 
     public boolean validatePageElements() {
-        try {
-            BaseTest.createStep("Verificando logo de YouTube", true, false, StepMode.BUFFER);
-            boolean logoDisplayed = wait.until(ExpectedConditions.presenceOfElementLocated(youtubeLogo)).isDisplayed();
-            BaseTest.createStep("Verificando caja de búsqueda", true, false, StepMode.BUFFER);
-            boolean searchBoxDisplayed = wait.until(ExpectedConditions.visibilityOfElementLocated(searchBox)).isDisplayed();
-            BaseTest.createStep("Verificando título de página", true, false, StepMode.BUFFER);
-            boolean titleCorrect = driver.getTitle().contains("YouTube");
-            
-            if (logoDisplayed && searchBoxDisplayed && titleCorrect) {
-                BaseTest.processBuffer(BaseTest.BufferAction.COMMIT_SUCCESS, null, false);
-                return true;
-            } else {
-                BaseTest.processBuffer(BaseTest.BufferAction.COMMIT_MERGED_FAILURE, 
-                    "Una o más validaciones de elementos fallaron", true);
-                return false;
-            }
-        } catch (Exception e) {
-            BaseTest.processBuffer(BaseTest.BufferAction.DISCARD_AND_FAIL, 
-                "Error durante validación de elementos: " + e.getMessage(), true);
-            return false;
-        }
+        // Una sola llamada de script por sondeo en lugar de una espera y un isDisplayed por elemento
+        return validateElementsWithReport("elementos de la página",
+                ElementCheck.displayed(youtubeLogo).as("Verificando logo de YouTube"),
+                ElementCheck.displayed(searchBox).as("Verificando caja de búsqueda"),
+                ElementCheck.titleContains("YouTube").as("Verificando título de página"));
     }
 }
@@ -0,0 +1,166 @@
+package pages;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ConfigReader;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Espera a que la página esté realmente lista en lugar de usar pausas fijas.
+ * Se consideran tres señales, evaluadas en una sola llamada de script por sondeo:
+ * - document.readyState == 'complete'
+ * - peticiones fetch/XHR pendientes por debajo del máximo configurado
+ * - DOM sin mutaciones durante el intervalo de quietud configurado
+ *
+ * Los contadores se instalan en la página en el primer sondeo tras cada navegación,
+ * por lo que las peticiones iniciadas antes de ese momento no se cuentan.
+ *
+ * Tras una acción que navega (Enter, click en un enlace) el documento anterior puede seguir
+ * cargado y quieto durante el primer sondeo. Para esos casos se toma una marca con
+ * {@link #mark(WebDriver)} antes de la acción, que además instala los contadores en la página
+ * actual, y {@link #awaitAfter(WebDriver, Marker)} espera a que algo cambie respecto a la marca
+ * (otro documento, otra URL o una petición fetch/XHR nueva) antes de evaluar las señales.
+ * Las mutaciones del DOM no cuentan como cambio: la propia acción altera el documento anterior
+ * (se cierra un desplegable, cambia el foco), así que solo sirven para medir la quietud.
+ */
+public class PageReadiness {
+    private static final Logger logger = LoggerFactory.getLogger(PageReadiness.class);
+    private static final Duration POLLING_INTERVAL = Duration.ofMillis(100);
+
+    private static final String READINESS_SCRIPT =
+            "var r = window.__seleniumReadiness;" +
+            "if (!r) {" +
+            "  r = window.__seleniumReadiness = { pending: 0, started: 0, lastMutation: Date.now() };" +
+            "  var done = function() { r.pending = Math.max(0, r.pending - 1); };" +
+            "  if (window.fetch) {" +
+            "    var originalFetch = window.fetch;" +
+            "    window.fetch = function() {" +
+            "      r.pending++; r.started++;" +
+            "      var p;" +
+            "      try { p = originalFetch.apply(this, arguments); } catch (e) { done(); throw e; }" +
+            "      return p.then(function(v) { done(); return v; }, function(e) { done(); throw e; });" +
+            "    };" +
+            "  }" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function() {" +
+            "    r.pending++; r.started++;" +
+            "    this.addEventListener('loadend', done);" +
+            "    return originalSend.apply(this, arguments);" +
+            "  };" +
+            "  if (window.MutationObserver && document.documentElement) {" +
+            "    new MutationObserver(function() { r.lastMutation = Date.now(); })" +
+            "      .observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "  }" +
+            "}" +
+            "return { readyState: document.readyState, pending: r.pending, quietFor: Date.now() - r.lastMutation," +
+            "  started: r.started, href: location.href," +
+            "  timeOrigin: window.performance && performance.timeOrigin ? String(performance.timeOrigin) : null };";
+
+    /**
+     * Estado de la página antes de una acción, para reconocer después que la acción tuvo efecto
+     */
+    public static class Marker {
+        private final String timeOrigin;
+        private final String href;
+        private final long started;
+
+        private Marker(Map<String, Object> state) {
+            this.timeOrigin = (String) state.get("timeOrigin");
+            this.href = String.valueOf(state.get("href"));
+            this.started = ((Number) state.get("started")).longValue();
+        }
+
+        /**
+         * true si la página ya no es la de la marca: otro documento u otra URL (navegación SPA),
+         * o el mismo documento con peticiones fetch/XHR iniciadas después de la marca
+         */
+        boolean hasChanged(Map<String, Object> state) {
+            return !Objects.equals(timeOrigin, state.get("timeOrigin"))
+                    || !href.equals(String.valueOf(state.get("href")))
+                    || ((Number) state.get("started")).longValue() != started;
+        }
+    }
+
+    /**
+     * Toma una marca de la página actual; llamar justo antes de la acción que navega
+     *
+     * @return la marca, o null si no se pudo leer la página (awaitAfter espera entonces como await)
+     */
+    @SuppressWarnings("unchecked")
+    public static Marker mark(WebDriver driver) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(READINESS_SCRIPT);
+            return result instanceof Map ? new Marker((Map<String, Object>) result) : null;
+        } catch (RuntimeException e) {
+            logger.debug("Could not mark page before action: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Espera a que la página esté lista usando los valores de config.properties
+     *
+     * @return true si la página quedó lista, false si se agotó el tiempo (se registra un warning)
+     */
+    public static boolean await(WebDriver driver) {
+        return await(driver, Duration.ofSeconds(ConfigReader.getReadinessTimeout()),
+                ConfigReader.getReadinessQuietMillis(), ConfigReader.getReadinessMaxPending());
+    }
+
+    /**
+     * @param timeout     Tiempo máximo de espera
+     * @param quietMillis Milisegundos sin mutaciones del DOM para considerarlo estable
+     * @param maxPending  Peticiones fetch/XHR en curso toleradas (p. ej. long-polling)
+     */
+    public static boolean await(WebDriver driver, Duration timeout, long quietMillis, long maxPending) {
+        return await(driver, null, timeout, quietMillis, maxPending);
+    }
+
+    /**
+     * Espera a que la página cambie respecto a la marca y después a que esté lista,
+     * usando los valores de config.properties
+     *
+     * @param marker Marca tomada con {@link #mark(WebDriver)} antes de la acción
+     * @return true si la página quedó lista, false si se agotó el tiempo (se registra un warning)
+     */
+    public static boolean awaitAfter(WebDriver driver, Marker marker) {
+        return await(driver, marker, Duration.ofSeconds(ConfigReader.getReadinessTimeout()),
+                ConfigReader.getReadinessQuietMillis(), ConfigReader.getReadinessMaxPending());
+    }
+
+    private static boolean await(WebDriver driver, Marker marker, Duration timeout, long quietMillis, long maxPending) {
+        long start = System.currentTimeMillis();
+        try {
+            new WebDriverWait(driver, timeout, POLLING_INTERVAL)
+                    .ignoring(JavascriptException.class)
+                    .until(d -> isReady(d, marker, quietMillis, maxPending));
+            logger.debug("Page ready after {} ms", System.currentTimeMillis() - start);
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Page not ready after {} ms (quiet={}ms, maxPending={}); continuing",
+                    System.currentTimeMillis() - start, quietMillis, maxPending);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isReady(WebDriver driver, Marker marker, long quietMillis, long maxPending) {
+        Object result = ((JavascriptExecutor) driver).executeScript(READINESS_SCRIPT);
+        if (!(result instanceof Map)) {
+            return false;
+        }
+        Map<String, Object> state = (Map<String, Object>) result;
+        return (marker == null || marker.hasChanged(state))
+                && "complete".equals(state.get("readyState"))
+                && ((Number) state.get("pending")).longValue() <= maxPending
+                && ((Number) state.get("quietFor")).longValue() >= quietMillis;
+    }
+}
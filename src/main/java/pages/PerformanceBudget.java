@@ -0,0 +1,155 @@
+package pages;
+
+import basetest.PageMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Presupuesto de rendimiento de una página o de un step. Es inmutable: cada método devuelve
+ * una copia con el nuevo límite, y los límites no definidos no se comprueban.
+ * Se declara en el constructor de la página junto a pageUrl y validationLocator:
+ *
+ * <pre>
+ * this.performanceBudget = PerformanceBudget.none()
+ *         .maxLoadMillis(4000)
+ *         .maxRequests(150)
+ *         .maxTransferBytes(3_000_000)
+ *         .maxActionMillis(1500);
+ * </pre>
+ *
+ * Los límites de la página se comparan con las métricas de {@link PageMetrics} al navegar con goTo
+ * (requiere page.metrics.enabled=true); maxActionMillis se compara con la duración de cada acción
+ * *WithReport. Un presupuesto superado se reporta según budget.violation.status (warning o fail).
+ * Si el buffer de Resource Timing se llenó, las peticiones y los bytes son un mínimo ("N+"): por
+ * encima del límite siguen siendo un incumplimiento, pero por debajo no se pueden verificar.
+ */
+public final class PerformanceBudget {
+    private static final long NO_LIMIT = -1;
+    private static final PerformanceBudget NONE = new PerformanceBudget(NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT);
+
+    private final long maxLoadMillis;
+    private final long maxLcpMillis;
+    private final long maxRequests;
+    private final long maxTransferBytes;
+    private final long maxActionMillis;
+
+    private PerformanceBudget(long maxLoadMillis, long maxLcpMillis, long maxRequests, long maxTransferBytes, long maxActionMillis) {
+        this.maxLoadMillis = maxLoadMillis;
+        this.maxLcpMillis = maxLcpMillis;
+        this.maxRequests = maxRequests;
+        this.maxTransferBytes = maxTransferBytes;
+        this.maxActionMillis = maxActionMillis;
+    }
+
+    public static PerformanceBudget none() {
+        return NONE;
+    }
+
+    /**
+     * Tiempo máximo hasta el final del evento load
+     */
+    public PerformanceBudget maxLoadMillis(long millis) {
+        return new PerformanceBudget(requirePositive(millis, "maxLoadMillis"), maxLcpMillis, maxRequests, maxTransferBytes, maxActionMillis);
+    }
+
+    /**
+     * Tiempo máximo hasta el Largest Contentful Paint (solo Chrome/Edge)
+     */
+    public PerformanceBudget maxLcpMillis(long millis) {
+        return new PerformanceBudget(maxLoadMillis, requirePositive(millis, "maxLcpMillis"), maxRequests, maxTransferBytes, maxActionMillis);
+    }
+
+    /**
+     * Número máximo de peticiones de la página, incluido el documento
+     */
+    public PerformanceBudget maxRequests(long requests) {
+        return new PerformanceBudget(maxLoadMillis, maxLcpMillis, requirePositive(requests, "maxRequests"), maxTransferBytes, maxActionMillis);
+    }
+
+    /**
+     * Bytes transferidos como máximo (los recursos de otros dominios sin Timing-Allow-Origin cuentan 0)
+     */
+    public PerformanceBudget maxTransferBytes(long bytes) {
+        return new PerformanceBudget(maxLoadMillis, maxLcpMillis, maxRequests, requirePositive(bytes, "maxTransferBytes"), maxActionMillis);
+    }
+
+    /**
+     * Duración máxima de una acción con reporte (clickWithReport, sendKeysWithReport)
+     */
+    public PerformanceBudget maxActionMillis(long millis) {
+        return new PerformanceBudget(maxLoadMillis, maxLcpMillis, maxRequests, maxTransferBytes, requirePositive(millis, "maxActionMillis"));
+    }
+
+    public boolean hasPageLimits() {
+        return maxLoadMillis != NO_LIMIT || maxLcpMillis != NO_LIMIT || maxRequests != NO_LIMIT || maxTransferBytes != NO_LIMIT;
+    }
+
+    public boolean hasActionLimit() {
+        return maxActionMillis != NO_LIMIT;
+    }
+
+    /**
+     * Límites de la página superados por una navegación, con el valor medido y el límite
+     * @return lista vacía si se cumple el presupuesto
+     */
+    public List<String> checkPage(PageMetrics.Metrics metrics) {
+        List<String> violations = new ArrayList<>();
+        boolean capped = metrics.isResourcesCapped();
+        exceeds(violations, "load", metrics.getLoadMillis(), false, maxLoadMillis, " ms");
+        exceeds(violations, "LCP", metrics.getLcpMillis(), false, maxLcpMillis, " ms");
+        exceeds(violations, "peticiones", metrics.getResources(), capped, maxRequests, "");
+        exceeds(violations, "bytes transferidos", metrics.getTransferBytes(), capped, maxTransferBytes, " B");
+        return violations;
+    }
+
+    /**
+     * Límites de peticiones y bytes que no se pueden verificar porque el buffer de Resource Timing
+     * se llenó y el valor medido (un mínimo) no supera el límite
+     * @return lista vacía si todos los límites se pudieron comprobar
+     */
+    public List<String> uncheckedPage(PageMetrics.Metrics metrics) {
+        List<String> unchecked = new ArrayList<>();
+        if (metrics.isResourcesCapped()) {
+            notVerifiable(unchecked, "peticiones", metrics.getResources(), maxRequests, "");
+            notVerifiable(unchecked, "bytes transferidos", metrics.getTransferBytes(), maxTransferBytes, " B");
+        }
+        return unchecked;
+    }
+
+    /**
+     * Límite de acción superado
+     * @return lista vacía si se cumple el presupuesto
+     */
+    public List<String> checkAction(long actionMillis) {
+        List<String> violations = new ArrayList<>();
+        exceeds(violations, "duración", actionMillis, false, maxActionMillis, " ms");
+        return violations;
+    }
+
+    private static void exceeds(List<String> violations, String name, long measured, boolean atLeast, long limit, String unit) {
+        // Un valor no disponible (-1) no cuenta como incumplimiento
+        if (limit != NO_LIMIT && measured > limit) {
+            violations.add(name + " " + measured + (atLeast ? "+" : "") + unit + " (máximo " + limit + unit + ")");
+        }
+    }
+
+    private static void notVerifiable(List<String> unchecked, String name, long measured, long limit, String unit) {
+        if (limit != NO_LIMIT && measured >= 0 && measured <= limit) {
+            unchecked.add(name + " " + measured + "+" + unit + " (máximo " + limit + unit + ")");
+        }
+    }
+
+    private static long requirePositive(long value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " debe ser mayor que 0: " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "load<=" + maxLoadMillis + "ms, lcp<=" + maxLcpMillis + "ms, requests<=" + maxRequests
+                + ", bytes<=" + maxTransferBytes + ", action<=" + maxActionMillis + "ms";
+    }
+}
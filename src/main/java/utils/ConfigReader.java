@@ -1,51 +1,233 @@
 package utils;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.Properties;
+import java.util.List;
 
+/**
+ * Acceso estático a la configuración. Los valores se resuelven una sola vez en un
+ * {@link ConfigSnapshot} inmutable (classpath + perfil + System properties + entorno),
+ * así que las lecturas son baratas incluso en esperas y creación de drivers.
+ */
 public class ConfigReader {
-    private static Properties properties;
-    private static final String CONFIG_PATH = "src/main/resources/config.properties";
+    private static final ConfigSnapshot snapshot = ConfigSnapshot.load();
 
-    static {
-        loadProperties();
-    }
-
-    private static void loadProperties() {
-        properties = new Properties();
-        try (FileInputStream fis = new FileInputStream(CONFIG_PATH)) {
-            properties.load(fis);
-        } catch (IOException e) {
-            System.err.println("Error loading config.properties: " + e.getMessage());
-            // Valores por defecto si no se encuentra el archivo
-            properties = new Properties();
-            properties.setProperty("base.url", "https://automationexercise.com");
-            properties.setProperty("browser", "chrome");
-            properties.setProperty("timeout", "10");
-            properties.setProperty("headless", "false");
-        }
+    public static ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public static String getProperty(String key) {
-        // Primero busca en System Properties, luego en config.properties
-        return System.getProperty(key, properties.getProperty(key));
+        return snapshot.getProperty(key);
     }
 
     public static String getBaseUrl() {
-        return getProperty("base.url");
+        return snapshot.getBaseUrl();
     }
 
     public static String getBrowser() {
-        return getProperty("browser");
+        return snapshot.getBrowser();
     }
 
     public static int getTimeout() {
-        return Integer.parseInt(getProperty("timeout"));
+        return snapshot.getTimeout();
     }
 
     public static boolean isHeadless() {
-        return Boolean.parseBoolean(getProperty("headless"));
+        return snapshot.isHeadless();
+    }
+
+    // Pool de sesiones WebDriver
+    public static boolean isDriverPoolEnabled() {
+        return snapshot.isDriverPoolEnabled();
+    }
+
+    public static int getDriverPoolSize() {
+        return snapshot.getDriverPoolSize();
+    }
+
+    public static int getDriverPoolWarmup() {
+        return snapshot.getDriverPoolWarmup();
+    }
+
+    public static int getDriverPoolBorrowTimeout() {
+        return snapshot.getDriverPoolBorrowTimeout();
+    }
+
+    // Alcance de la sesión del navegador: method, class, test o suite
+    public static String getDriverLifecycle() {
+        return snapshot.getDriverLifecycle();
+    }
+
+    // Ejecución local o remota contra un Selenium Grid
+    public static boolean isRemoteExecution() {
+        return "remote".equals(snapshot.getExecutionMode());
+    }
+
+    public static String getGridUrl() {
+        return snapshot.getGridUrl();
+    }
+
+    public static int getGridMaxSessions() {
+        return snapshot.getGridMaxSessions();
+    }
+
+    public static int getGridSessionRetries() {
+        return snapshot.getGridSessionRetries();
+    }
+
+    public static int getGridSessionRetryDelayMillis() {
+        return snapshot.getGridSessionRetryDelayMillis();
+    }
+
+    public static int getGridSessionTimeout() {
+        return snapshot.getGridSessionTimeout();
+    }
+
+    // Pipeline asíncrono de screenshots
+    public static boolean isAsyncScreenshotsEnabled() {
+        return snapshot.isAsyncScreenshotsEnabled();
+    }
+
+    public static int getAsyncScreenshotThreads() {
+        return snapshot.getAsyncScreenshotThreads();
+    }
+
+    // Almacenamiento de screenshots: inline (embebidos una vez) o file (reports/screenshots)
+    public static String getScreenshotStoreMode() {
+        return snapshot.getScreenshotStoreMode();
+    }
+
+    // Descarte de capturas casi idénticas a la anterior (dHash de hash.size x hash.size bits)
+    public static boolean isPerceptualDedupeEnabled() {
+        return snapshot.isPerceptualDedupeEnabled();
+    }
+
+    public static int getPerceptualDedupeHashSize() {
+        return snapshot.getPerceptualDedupeHashSize();
+    }
+
+    public static int getPerceptualDedupeThreshold() {
+        return snapshot.getPerceptualDedupeThreshold();
+    }
+
+    // Screenshots del reporte cargados al hacerse visibles en lugar de al abrirlo
+    public static boolean isScreenshotLazyLoadEnabled() {
+        return snapshot.isScreenshotLazyLoadEnabled();
+    }
+
+    // Modo de reporte: spark (todo en memoria hasta el final) o streaming (incremental)
+    public static boolean isStreamingReportEnabled() {
+        return "streaming".equals(snapshot.getReportMode());
+    }
+
+    // Logs del reporte encolados y aplicados por un único hilo escritor
+    public static boolean isAsyncReportLogEnabled() {
+        return snapshot.isAsyncReportLogEnabled();
+    }
+
+    public static int getReportLogQueueCapacity() {
+        return snapshot.getReportLogQueueCapacity();
+    }
+
+    // Ejecución paralela: none, methods, classes, tests o instances
+    public static String getParallelMode() {
+        return snapshot.getParallelMode();
+    }
+
+    public static boolean isParallelEnabled() {
+        return !"none".equals(snapshot.getParallelMode());
+    }
+
+    public static int getParallelThreads() {
+        return snapshot.getParallelThreads();
+    }
+
+    // Espera de página lista (readyState + red + DOM estable) e implicit wait global
+    public static int getReadinessTimeout() {
+        return snapshot.getReadinessTimeout();
+    }
+
+    public static int getReadinessQuietMillis() {
+        return snapshot.getReadinessQuietMillis();
+    }
+
+    public static int getReadinessMaxPending() {
+        return snapshot.getReadinessMaxPending();
+    }
+
+    public static int getImplicitWait() {
+        return snapshot.getImplicitWait();
+    }
+
+    // Resolución de binarios de drivers (una vez por JVM, cacheada en un lock file)
+    public static boolean isDriverOfflineMode() {
+        return snapshot.isDriverOfflineMode();
+    }
+
+    public static String getDriverLockFile() {
+        return snapshot.getDriverLockFile();
+    }
+
+    // Exportación de tiempos por step (JSON por test + CSV por ejecución en reports/timings)
+    public static boolean isStepTimingExportEnabled() {
+        return snapshot.isStepTimingExportEnabled();
+    }
+
+    // Sharding por duración: shard.index (0 .. shard.total-1) y archivo de historial de duraciones
+    public static int getShardTotal() {
+        return snapshot.getShardTotal();
+    }
+
+    public static int getShardIndex() {
+        return snapshot.getShardIndex();
+    }
+
+    public static String getShardHistoryFile() {
+        return snapshot.getShardHistoryFile();
+    }
+
+    // Resultados de cada shard en JSONL para combinarlos después con ReportMerger
+    public static boolean isShardResultsEnabled() {
+        return snapshot.isShardResultsEnabled();
+    }
+
+    // Bloqueo de peticiones por DevTools (Chrome/Edge): patrones de URL y tipos de recurso
+    public static boolean isNetworkBlockEnabled() {
+        return snapshot.isNetworkBlockEnabled();
+    }
+
+    public static List<String> getNetworkBlockUrls() {
+        return snapshot.getNetworkBlockUrls();
+    }
+
+    public static List<String> getNetworkBlockTypes() {
+        return snapshot.getNetworkBlockTypes();
+    }
+
+    // Grabación HAR por test (DevTools) y número de peticiones más lentas en el resumen de cada step
+    public static boolean isNetworkHarEnabled() {
+        return snapshot.isNetworkHarEnabled();
+    }
+
+    public static int getNetworkHarSlowest() {
+        return snapshot.getNetworkHarSlowest();
+    }
+
+    // Métricas de rendimiento del navegador (TTFB, DCL, load, FCP, LCP) en cada navegación
+    public static boolean isPageMetricsEnabled() {
+        return snapshot.isPageMetricsEnabled();
+    }
+
+    // Presupuestos de rendimiento superados: warning (el test sigue) o fail (el step falla)
+    public static boolean isBudgetViolationFailure() {
+        return "fail".equals(snapshot.getBudgetViolationStatus());
+    }
+
+    // Reintentos: intentos totales por test (1 = sin reintentos) y repaso final solo de los fallidos
+    public static int getRetryMaxAttempts() {
+        return snapshot.getRetryMaxAttempts();
+    }
+
+    public static boolean isRetryRerunFailedEnabled() {
+        return snapshot.isRetryRerunFailedEnabled();
     }
 
     // Método para obtener URLs específicas
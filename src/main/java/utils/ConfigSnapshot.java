@@ -0,0 +1,558 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Configuración resuelta una sola vez al arrancar, inmutable y tipada.
+ * Las capas se aplican en este orden (cada una sobrescribe a la anterior):
+ * 1. config.properties del classpath
+ * 2. config-&lt;perfil&gt;.properties del classpath (config.profile / CONFIG_PROFILE, p. ej. qa o staging)
+ * 3. System properties (-Dclave=valor)
+ * 4. Variables de entorno (base.url -&gt; BASE_URL)
+ *
+ * Los valores inválidos se reportan todos juntos al cargar, en lugar de fallar más tarde.
+ */
+public final class ConfigSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    public static final String CONFIG_FILE = "config.properties";
+    public static final String PROFILE_KEY = "config.profile";
+
+    private static final Set<String> BROWSERS = new LinkedHashSet<>(Arrays.asList("chrome", "firefox", "edge"));
+    private static final Set<String> STORE_MODES = new LinkedHashSet<>(Arrays.asList("inline", "file"));
+    private static final Set<String> REPORT_MODES = new LinkedHashSet<>(Arrays.asList("spark", "streaming"));
+    private static final Set<String> EXECUTION_MODES = new LinkedHashSet<>(Arrays.asList("local", "remote"));
+    private static final Set<String> LIFECYCLES = new LinkedHashSet<>(Arrays.asList("method", "class", "test", "suite"));
+    private static final Set<String> BUDGET_STATUSES = new LinkedHashSet<>(Arrays.asList("warning", "fail"));
+    private static final Set<String> PARALLEL_MODES = new LinkedHashSet<>(
+            Arrays.asList("none", "methods", "classes", "tests", "instances"));
+
+    private final Map<String, String> values;
+    private final String profile;
+
+    private final String baseUrl;
+    private final String browser;
+    private final boolean headless;
+    private final int timeout;
+
+    private final boolean driverPoolEnabled;
+    private final int driverPoolSize;
+    private final int driverPoolWarmup;
+    private final int driverPoolBorrowTimeout;
+    private final String driverLifecycle;
+
+    private final String executionMode;
+    private final String gridUrl;
+    private final int gridMaxSessions;
+    private final int gridSessionRetries;
+    private final int gridSessionRetryDelayMillis;
+    private final int gridSessionTimeout;
+
+    private final boolean asyncScreenshots;
+    private final int asyncScreenshotThreads;
+    private final String screenshotStoreMode;
+    private final boolean perceptualDedupe;
+    private final int perceptualDedupeHashSize;
+    private final int perceptualDedupeThreshold;
+    private final boolean screenshotLazyLoad;
+    private final String reportMode;
+    private final boolean asyncReportLog;
+    private final int reportLogQueueCapacity;
+
+    private final String parallelMode;
+    private final int parallelThreads;
+
+    private final int readinessTimeout;
+    private final int readinessQuietMillis;
+    private final int readinessMaxPending;
+    private final int implicitWait;
+
+    private final boolean driverOffline;
+    private final String driverLockFile;
+    private final boolean stepTimingExport;
+
+    private final int shardTotal;
+    private final boolean shardResultsEnabled;
+    private final int shardIndex;
+    private final String shardHistoryFile;
+
+    private final boolean networkBlockEnabled;
+    private final List<String> networkBlockUrls;
+    private final List<String> networkBlockTypes;
+
+    private final boolean networkHarEnabled;
+    private final int networkHarSlowest;
+    private final boolean pageMetricsEnabled;
+    private final String budgetViolationStatus;
+
+    private final int retryMaxAttempts;
+    private final boolean retryRerunFailed;
+
+    private ConfigSnapshot(Map<String, String> values, String profile) {
+        this.values = Collections.unmodifiableMap(values);
+        this.profile = profile;
+
+        Parser parser = new Parser(values);
+        this.baseUrl = parser.url("base.url", "https://automationexercise.com");
+        this.browser = parser.oneOf("browser", "chrome", BROWSERS);
+        this.headless = parser.bool("headless", false);
+        this.timeout = parser.integer("timeout", 10, 1);
+
+        this.driverPoolEnabled = parser.bool("driver.pool.enabled", false);
+        this.driverPoolSize = parser.integer("driver.pool.size", 4, 1);
+        this.driverPoolWarmup = parser.integer("driver.pool.warmup", 0, 0);
+        this.driverPoolBorrowTimeout = parser.integer("driver.pool.borrow.timeout", 120, 1);
+        this.driverLifecycle = parser.oneOf("driver.lifecycle", "method", LIFECYCLES);
+
+        this.executionMode = parser.oneOf("execution.mode", "local", EXECUTION_MODES);
+        this.gridUrl = parser.url("grid.url", "http://localhost:4444");
+        this.gridMaxSessions = parser.integer("grid.max.sessions", 0, 0);
+        this.gridSessionRetries = parser.integer("grid.session.retries", 2, 0);
+        this.gridSessionRetryDelayMillis = parser.integer("grid.session.retry.delay.ms", 2000, 0);
+        this.gridSessionTimeout = parser.integer("grid.session.timeout", 300, 1);
+
+        this.asyncScreenshots = parser.bool("screenshot.async", false);
+        this.asyncScreenshotThreads = parser.integer("screenshot.async.threads", 2, 1);
+        this.screenshotStoreMode = parser.oneOf("screenshot.store", "inline", STORE_MODES);
+        this.perceptualDedupe = parser.bool("screenshot.dedupe.perceptual", false);
+        this.perceptualDedupeHashSize = parser.integer("screenshot.dedupe.hash.size", 8, 2);
+        this.perceptualDedupeThreshold = parser.integer("screenshot.dedupe.threshold", 3, 0);
+        this.screenshotLazyLoad = parser.bool("screenshot.lazy.load", true);
+        parser.require(perceptualDedupeHashSize <= 32,
+                "screenshot.dedupe.hash.size=" + perceptualDedupeHashSize + " (máximo 32)");
+        this.reportMode = parser.oneOf("report.mode", "spark", REPORT_MODES);
+        this.asyncReportLog = parser.bool("report.log.async", false);
+        this.reportLogQueueCapacity = parser.integer("report.log.queue.capacity", 1000, 1);
+
+        this.parallelMode = parser.oneOf("parallel.mode", "none", PARALLEL_MODES);
+        this.parallelThreads = parser.integer("parallel.threads", Runtime.getRuntime().availableProcessors(), 1);
+
+        this.readinessTimeout = parser.integer("readiness.timeout", timeout, 0);
+        this.readinessQuietMillis = parser.integer("readiness.quiet.ms", 300, 0);
+        this.readinessMaxPending = parser.integer("readiness.max.pending", 0, 0);
+        this.implicitWait = parser.integer("implicit.wait", 0, 0);
+
+        this.driverOffline = parser.bool("driver.offline", false);
+        this.driverLockFile = parser.string("driver.lock.file", "drivers.lock");
+        this.stepTimingExport = parser.bool("step.timing.export", false);
+
+        this.shardTotal = parser.integer("shard.total", 1, 1);
+        this.shardIndex = parser.integer("shard.index", 0, 0);
+        this.shardHistoryFile = parser.string("shard.history.file", "test-durations.properties");
+        parser.require(shardIndex < shardTotal,
+                "shard.index=" + shardIndex + " (debe ser menor que shard.total=" + shardTotal + ")");
+        // Por defecto solo cuando la suite se reparte entre varias JVM
+        this.shardResultsEnabled = parser.bool("shard.results.enabled", shardTotal > 1);
+
+        this.networkBlockEnabled = parser.bool("network.block.enabled", false);
+        this.networkBlockUrls = parser.list("network.block.urls");
+        this.networkBlockTypes = parser.list("network.block.types");
+
+        this.networkHarEnabled = parser.bool("network.har.enabled", false);
+        this.networkHarSlowest = parser.integer("network.har.slowest", 3, 0);
+
+        this.pageMetricsEnabled = parser.bool("page.metrics.enabled", true);
+        this.budgetViolationStatus = parser.oneOf("budget.violation.status", "warning", BUDGET_STATUSES);
+
+        this.retryMaxAttempts = parser.integer("retry.max.attempts", 1, 1);
+        this.retryRerunFailed = parser.bool("retry.rerun.failed", false);
+
+        parser.failOnErrors(profile);
+    }
+
+    /**
+     * Resuelve todas las capas de configuración
+     *
+     * @throws IllegalStateException si falta el perfil indicado o algún valor es inválido
+     */
+    public static ConfigSnapshot load() {
+        Map<String, String> values = new HashMap<>();
+        if (!loadClasspath(values, CONFIG_FILE)) {
+            logger.warn("{} not found on the classpath, using built-in defaults", CONFIG_FILE);
+        }
+
+        String profile = firstNonBlank(System.getProperty(PROFILE_KEY), System.getenv(toEnvName(PROFILE_KEY)),
+                values.get(PROFILE_KEY));
+        if (profile != null) {
+            String profileFile = "config-" + profile + ".properties";
+            if (!loadClasspath(values, profileFile)) {
+                throw new IllegalStateException("Perfil de configuración '" + profile
+                        + "' sin archivo " + profileFile + " en el classpath");
+            }
+        }
+
+        // Las variables de entorno solo aplican a claves de la configuración, no a cualquier System property
+        Set<String> configKeys = knownKeys(values);
+        for (String key : System.getProperties().stringPropertyNames()) {
+            values.put(key, System.getProperty(key));
+        }
+        for (String key : configKeys) {
+            String env = System.getenv(toEnvName(key));
+            if (env != null) {
+                values.put(key, env);
+            }
+        }
+
+        ConfigSnapshot snapshot = new ConfigSnapshot(values, profile);
+        logger.info("Configuration loaded (profile: {}, browser: {}, headless: {}, base URL: {})",
+                profile == null ? "default" : profile, snapshot.browser, snapshot.headless, snapshot.baseUrl);
+        return snapshot;
+    }
+
+    /**
+     * Valor sin tipar tal como quedó tras aplicar las capas
+     */
+    public String getProperty(String key) {
+        return values.get(key);
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public boolean isDriverPoolEnabled() {
+        return driverPoolEnabled;
+    }
+
+    public int getDriverPoolSize() {
+        return driverPoolSize;
+    }
+
+    public int getDriverPoolWarmup() {
+        return driverPoolWarmup;
+    }
+
+    public int getDriverPoolBorrowTimeout() {
+        return driverPoolBorrowTimeout;
+    }
+
+    public String getDriverLifecycle() {
+        return driverLifecycle;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public String getGridUrl() {
+        return gridUrl;
+    }
+
+    public int getGridMaxSessions() {
+        return gridMaxSessions;
+    }
+
+    public int getGridSessionRetries() {
+        return gridSessionRetries;
+    }
+
+    public int getGridSessionRetryDelayMillis() {
+        return gridSessionRetryDelayMillis;
+    }
+
+    public int getGridSessionTimeout() {
+        return gridSessionTimeout;
+    }
+
+    public boolean isAsyncScreenshotsEnabled() {
+        return asyncScreenshots;
+    }
+
+    public int getAsyncScreenshotThreads() {
+        return asyncScreenshotThreads;
+    }
+
+    public String getScreenshotStoreMode() {
+        return screenshotStoreMode;
+    }
+
+    public boolean isPerceptualDedupeEnabled() {
+        return perceptualDedupe;
+    }
+
+    public int getPerceptualDedupeHashSize() {
+        return perceptualDedupeHashSize;
+    }
+
+    public int getPerceptualDedupeThreshold() {
+        return perceptualDedupeThreshold;
+    }
+
+    public boolean isScreenshotLazyLoadEnabled() {
+        return screenshotLazyLoad;
+    }
+
+    public String getReportMode() {
+        return reportMode;
+    }
+
+    public boolean isAsyncReportLogEnabled() {
+        return asyncReportLog;
+    }
+
+    public int getReportLogQueueCapacity() {
+        return reportLogQueueCapacity;
+    }
+
+    public String getParallelMode() {
+        return parallelMode;
+    }
+
+    public int getParallelThreads() {
+        return parallelThreads;
+    }
+
+    public int getReadinessTimeout() {
+        return readinessTimeout;
+    }
+
+    public int getReadinessQuietMillis() {
+        return readinessQuietMillis;
+    }
+
+    public int getReadinessMaxPending() {
+        return readinessMaxPending;
+    }
+
+    public int getImplicitWait() {
+        return implicitWait;
+    }
+
+    public boolean isDriverOfflineMode() {
+        return driverOffline;
+    }
+
+    public String getDriverLockFile() {
+        return driverLockFile;
+    }
+
+    public boolean isStepTimingExportEnabled() {
+        return stepTimingExport;
+    }
+
+    public int getShardTotal() {
+        return shardTotal;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public boolean isShardResultsEnabled() {
+        return shardResultsEnabled;
+    }
+
+    public String getShardHistoryFile() {
+        return shardHistoryFile;
+    }
+
+    public boolean isNetworkBlockEnabled() {
+        return networkBlockEnabled;
+    }
+
+    public List<String> getNetworkBlockUrls() {
+        return networkBlockUrls;
+    }
+
+    public List<String> getNetworkBlockTypes() {
+        return networkBlockTypes;
+    }
+
+    public boolean isNetworkHarEnabled() {
+        return networkHarEnabled;
+    }
+
+    public int getNetworkHarSlowest() {
+        return networkHarSlowest;
+    }
+
+    public boolean isPageMetricsEnabled() {
+        return pageMetricsEnabled;
+    }
+
+    public String getBudgetViolationStatus() {
+        return budgetViolationStatus;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public boolean isRetryRerunFailedEnabled() {
+        return retryRerunFailed;
+    }
+
+    private static boolean loadClasspath(Map<String, String> values, String resource) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = ConfigSnapshot.class.getClassLoader();
+        }
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                return false;
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String key : properties.stringPropertyNames()) {
+                values.put(key, properties.getProperty(key));
+            }
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + resource + " del classpath", e);
+        }
+    }
+
+    private static Set<String> knownKeys(Map<String, String> values) {
+        Set<String> keys = new LinkedHashSet<>(values.keySet());
+        keys.addAll(Arrays.asList("base.url", "browser", "headless", "timeout",
+                "driver.pool.enabled", "driver.pool.size", "driver.pool.warmup", "driver.pool.borrow.timeout",
+                "driver.lifecycle", "execution.mode", "grid.url", "grid.max.sessions", "grid.session.retries",
+                "grid.session.retry.delay.ms", "grid.session.timeout",
+                "screenshot.async", "screenshot.async.threads", "screenshot.store", "screenshot.dedupe.perceptual",
+                "screenshot.dedupe.hash.size", "screenshot.dedupe.threshold", "screenshot.lazy.load", "report.mode",
+                "report.log.async", "report.log.queue.capacity",
+                "parallel.mode", "parallel.threads", "readiness.timeout", "readiness.quiet.ms",
+                "readiness.max.pending", "implicit.wait", "driver.offline", "driver.lock.file", "step.timing.export",
+                "shard.total", "shard.index", "shard.history.file", "shard.results.enabled", "retry.max.attempts", "retry.rerun.failed",
+                "network.block.enabled", "network.block.urls", "network.block.types",
+                "network.har.enabled", "network.har.slowest", "page.metrics.enabled",
+                "budget.violation.status"));
+        return keys;
+    }
+
+    static String toEnvName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static String firstNonBlank(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.trim().isEmpty()) {
+                return candidate.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convierte valores acumulando los errores para reportarlos todos a la vez
+     */
+    private static final class Parser {
+        private final Map<String, String> values;
+        private final List<String> errors = new ArrayList<>();
+
+        Parser(Map<String, String> values) {
+            this.values = values;
+        }
+
+        String string(String key, String defaultValue) {
+            String value = values.get(key);
+            return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+        }
+
+        /**
+         * Lista separada por comas, sin elementos vacíos
+         */
+        List<String> list(String key) {
+            List<String> items = new ArrayList<>();
+            for (String item : string(key, "").split(",")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+            return Collections.unmodifiableList(items);
+        }
+
+        int integer(String key, int defaultValue, int min) {
+            String value = string(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed < min) {
+                    errors.add(key + "=" + value + " (mínimo " + min + ")");
+                    return defaultValue;
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                errors.add(key + "=" + value + " (no es un entero)");
+                return defaultValue;
+            }
+        }
+
+        boolean bool(String key, boolean defaultValue) {
+            String value = string(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                return Boolean.parseBoolean(value);
+            }
+            errors.add(key + "=" + value + " (se esperaba true o false)");
+            return defaultValue;
+        }
+
+        String oneOf(String key, String defaultValue, Set<String> allowed) {
+            String value = string(key, defaultValue).toLowerCase(Locale.ROOT);
+            if (!allowed.contains(value)) {
+                errors.add(key + "=" + value + " (valores válidos: " + String.join(", ", allowed) + ")");
+                return defaultValue;
+            }
+            return value;
+        }
+
+        String url(String key, String defaultValue) {
+            String value = string(key, defaultValue);
+            if (!value.startsWith("http://") && !value.startsWith("https://")) {
+                errors.add(key + "=" + value + " (se esperaba una URL http o https)");
+                return defaultValue;
+            }
+            return value;
+        }
+
+        void require(boolean condition, String error) {
+            if (!condition) {
+                errors.add(error);
+            }
+        }
+
+        void failOnErrors(String profile) {
+            if (!errors.isEmpty()) {
+                throw new IllegalStateException("Configuración inválida"
+                        + (profile != null ? " (perfil " + profile + ")" : "") + ": " + String.join("; ", errors));
+            }
+        }
+    }
+}
@@ -3,50 +3,309 @@ package utils;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.model.SystemEnvInfo;
+import com.aventstack.extentreports.model.Test;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExtentManager {
-    private static ExtentReports extent;
+    private static final Logger logger = LoggerFactory.getLogger(ExtentManager.class);
+
+    // Protege el modelo compartido de ExtentReports (lista de tests, eventos de log y flush)
+    private static final Object REPORT_LOCK = new Object();
+
+    private static volatile ExtentReports extent;
     private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static StreamingReportWriter streamingWriter;
+    private static volatile ShardResultsWriter resultsWriter;
+    private static volatile ReportLogQueue logQueue;
+    private static final long LOG_DRAIN_TIMEOUT_MILLIS = 30_000;
+    // Test padre de cada clave de reintento (RetryAnalyzer.keyOf); cada intento es un nodo hijo
+    private static final Map<String, ExtentTest> attemptParents = new ConcurrentHashMap<>();
+    // Tests fallidos que el repaso final va a repetir: su registro de shard se escribe tras el repaso
+    private static final Map<String, ExtentTest> pendingRecords = new ConcurrentHashMap<>();
 
-    public static void createInstance() {
+    private static final String RUN_TIMESTAMP = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+
+    public static synchronized void createInstance() {
         if (extent == null) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String reportPath = System.getProperty("user.dir") + "/reports/ExtentReport_" + timestamp + ".html";
+            String timestamp = RUN_TIMESTAMP;
+            String reportPath = getReportDirectory() + "/ExtentReport_" + timestamp + ".html";
 
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-            sparkReporter.config().setTheme(Theme.DARK);
-            sparkReporter.config().setDocumentTitle("ToolsQA Automation Report");
-            sparkReporter.config().setReportName("Test Execution Report");
-            sparkReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
+            ExtentReports reports = new ExtentReports();
+            if (ConfigReader.isStreamingReportEnabled()) {
+                // Sin Spark: cada test se escribe al terminar y se descarta del modelo
+                String streamingPath = getReportDirectory() + "/StreamingReport_" + timestamp + ".html";
+                try {
+                    streamingWriter = new StreamingReportWriter(streamingPath, "Test Execution Report");
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo crear el reporte incremental: " + streamingPath, e);
+                }
+            } else {
+                reports.attachReporter(createSparkReporter(reportPath));
+            }
+            if (ConfigReader.isShardResultsEnabled()) {
+                String resultsPath = getReportDirectory() + "/" + ShardResultsWriter.RESULTS_DIR + "/results_" + timestamp
+                        + "_shard-" + (ConfigReader.getShardIndex() + 1) + "-of-" + ConfigReader.getShardTotal() + ".jsonl";
+                try {
+                    resultsWriter = new ShardResultsWriter(resultsPath, timestamp, ConfigReader.getShardIndex(), ConfigReader.getShardTotal());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo crear el archivo de resultados: " + resultsPath, e);
+                }
+            }
 
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("Browser", "Chrome");
-            extent.setSystemInfo("Environment", "QA");
-            extent.setSystemInfo("User", System.getProperty("user.name"));
+            reports.setSystemInfo("OS", System.getProperty("os.name"));
+            reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+            reports.setSystemInfo("Browser", "Chrome");
+            reports.setSystemInfo("Environment", "QA");
+            reports.setSystemInfo("User", System.getProperty("user.name"));
+            if (ConfigReader.isAsyncReportLogEnabled()) {
+                logQueue = new ReportLogQueue(ConfigReader.getReportLogQueueCapacity(), REPORT_LOCK);
+            }
+            // Se publica al final para que otros hilos no vean una instancia a medio configurar
+            extent = reports;
         }
     }
 
+    /**
+     * Reporter Spark con la configuración del proyecto (también lo usa ReportMerger)
+     */
+    static ExtentSparkReporter createSparkReporter(String reportPath) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+        sparkReporter.config().setTheme(Theme.DARK);
+        sparkReporter.config().setDocumentTitle("ToolsQA Automation Report");
+        sparkReporter.config().setReportName("Test Execution Report");
+        sparkReporter.config().setTimeStampFormat("EEEE, MMMM dd, yyyy, hh:mm a '('zzz')'");
+        return sparkReporter;
+    }
+
+    /**
+     * Directorio donde se escriben el reporte y sus archivos asociados (screenshots, etc.)
+     */
+    public static String getReportDirectory() {
+        return System.getProperty("user.dir") + "/reports";
+    }
+
+    /**
+     * Marca de tiempo de esta ejecución, usada para nombrar el reporte y sus archivos asociados
+     */
+    public static String getRunTimestamp() {
+        return RUN_TIMESTAMP;
+    }
+
     public static ExtentTest createTest(String testName, String description) {
-        ExtentTest extentTest = extent.createTest(testName, description);
+        createInstance();
+        ExtentTest extentTest;
+        synchronized (REPORT_LOCK) {
+            extentTest = extent.createTest(testName, description);
+        }
         test.set(extentTest);
         return extentTest;
     }
 
+    /**
+     * Crea el nodo "Attempt N" de un test con reintentos; el test padre se crea en el primer intento.
+     * El nodo queda como test del hilo actual, así los steps se registran dentro del intento.
+     */
+    public static ExtentTest createAttempt(String attemptKey, String testName, String description, int attempt) {
+        createInstance();
+        ExtentTest node;
+        synchronized (REPORT_LOCK) {
+            ExtentTest parent = attemptParents.computeIfAbsent(attemptKey, key -> extent.createTest(testName, description));
+            node = parent.createNode("Attempt " + attempt);
+        }
+        test.set(node);
+        return node;
+    }
+
+    /**
+     * Marca un intento fallido que se va a reintentar: queda como WARNING para que no haga fallar al test
+     */
+    public static void markAttemptRetried(ExtentTest attemptNode, String reason) {
+        if (attemptNode == null) {
+            return;
+        }
+        drainLogs();
+        synchronized (REPORT_LOCK) {
+            attemptNode.log(Status.WARNING, "Attempt failed, retrying: " + reason);
+            attemptNode.getModel().setStatus(Status.WARNING);
+        }
+    }
+
+    /**
+     * Cierra un test con reintentos tras su último intento: el estado del padre es el peor de sus
+     * intentos (un intento reintentado cuenta como WARNING, no como FAIL).
+     * Si el último intento no falló (p. ej. pasó en el repaso final), los fallos anteriores se
+     * rebajan a WARNING: el resultado del test lo decide su último intento.
+     */
+    public static void completeAttempts(String attemptKey) {
+        ExtentTest parent = attemptParents.get(attemptKey);
+        if (parent == null) {
+            return;
+        }
+        drainLogs();
+        synchronized (REPORT_LOCK) {
+            List<Test> children = parent.getModel().getChildren();
+            if (!children.isEmpty() && children.get(children.size() - 1).getStatus() != Status.FAIL) {
+                for (Test child : children.subList(0, children.size() - 1)) {
+                    if (child.getStatus() == Status.FAIL) {
+                        child.setStatus(Status.WARNING);
+                    }
+                }
+            }
+            List<Status> statuses = new ArrayList<>();
+            children.forEach(child -> statuses.add(child.getStatus()));
+            if (!statuses.isEmpty()) {
+                parent.getModel().setStatus(Status.max(statuses));
+            }
+        }
+        if (streamingWriter != null) {
+            // En modo incremental el padre sale del modelo; un repaso posterior crea un test nuevo
+            attemptParents.remove(attemptKey);
+        } else if (resultsWriter != null && parent.getStatus() == Status.FAIL
+                && ConfigReader.isRetryRerunFailedEnabled() && !FailedTestRerunner.isRerunning()) {
+            // El repaso añade otro intento a este mismo test: escribirlo ahora lo duplicaría en los resultados
+            pendingRecords.put(attemptKey, parent);
+            return;
+        }
+        pendingRecords.remove(attemptKey);
+        completeTest(parent);
+    }
+
     public static ExtentTest getTest() {
         return test.get();
     }
 
+    /**
+     * Registra un log en el test del hilo actual
+     */
+    public static void log(Status status, String details) {
+        log(getTest(), status, details);
+    }
+
+    /**
+     * Registra un log en un test concreto. El HTML se construye fuera del lock;
+     * solo la inserción en el modelo compartido está sincronizada.
+     */
+    public static void log(ExtentTest extentTest, Status status, String details) {
+        if (extentTest == null) {
+            return;
+        }
+        ReportLogQueue queue = logQueue;
+        if (queue != null) {
+            queue.submit(extentTest, status, details);
+            return;
+        }
+        synchronized (REPORT_LOCK) {
+            extentTest.log(status, details);
+        }
+    }
+
+    public static void log(ExtentTest extentTest, Status status, Markup markup) {
+        if (extentTest == null) {
+            return;
+        }
+        ReportLogQueue queue = logQueue;
+        if (queue != null) {
+            queue.submit(extentTest, status, markup);
+            return;
+        }
+        synchronized (REPORT_LOCK) {
+            extentTest.log(status, markup);
+        }
+    }
+
+    /**
+     * Marca el test como terminado. Con shard.results.enabled se añade a los resultados del shard;
+     * en modo incremental se escribe al reporte y se elimina del modelo en memoria.
+     */
+    public static void completeTest(ExtentTest extentTest) {
+        ShardResultsWriter results = resultsWriter;
+        if (extentTest == null || (streamingWriter == null && results == null)) {
+            return;
+        }
+        drainLogs();
+        Map<String, Object> record = null;
+        synchronized (REPORT_LOCK) {
+            if (results != null) {
+                record = ShardResultsWriter.toRecord(extentTest.getModel());
+            }
+            if (streamingWriter != null) {
+                streamingWriter.append(extentTest.getModel());
+                extent.removeTest(extentTest);
+            }
+        }
+        if (record != null) {
+            results.append(record);
+        }
+    }
+
     public static void flushReport() {
+        drainLogs();
+        synchronized (REPORT_LOCK) {
+            if (streamingWriter != null) {
+                streamingWriter.flush();
+            } else if (extent != null) {
+                extent.flush();
+            }
+        }
+    }
+
+    /**
+     * Cierre final del reporte al terminar la suite
+     */
+    public static void closeReport() {
+        ReportLogQueue queue = logQueue;
+        if (queue != null) {
+            // Los logs posteriores al cierre se aplican directamente
+            queue.shutdown(LOG_DRAIN_TIMEOUT_MILLIS);
+            logQueue = null;
+            setSystemInfo("Report log queue", queue.getStats());
+        }
+        // Fallidos que no llegaron a repetirse (p. ej. el repaso no pudo ejecutarse)
+        pendingRecords.values().forEach(ExtentManager::completeTest);
+        pendingRecords.clear();
+        ShardResultsWriter results = resultsWriter;
+        if (results != null && extent != null) {
+            List<SystemEnvInfo> systemInfo;
+            synchronized (REPORT_LOCK) {
+                systemInfo = new ArrayList<>(extent.getReport().getSystemEnvInfo());
+            }
+            results.close(systemInfo);
+        }
+        flushReport();
+        if (streamingWriter != null) {
+            streamingWriter.close();
+        }
+    }
+
+    /**
+     * Espera a que el hilo escritor aplique los logs encolados (solo con report.log.async=true)
+     */
+    public static void drainLogs() {
+        ReportLogQueue queue = logQueue;
+        if (queue != null && !queue.drain(LOG_DRAIN_TIMEOUT_MILLIS)) {
+            logger.warn("Timed out after {} ms waiting for pending report logs", LOG_DRAIN_TIMEOUT_MILLIS);
+        }
+    }
+
+    public static void setSystemInfo(String key, String value) {
         if (extent != null) {
-            extent.flush();
+            synchronized (REPORT_LOCK) {
+                extent.setSystemInfo(key, value);
+            }
         }
     }
 
@@ -59,7 +318,7 @@ public class ExtentManager {
         ExtentTest currentTest = getTest();
         if (currentTest != null) {
             Status status = isPassed ? Status.PASS : Status.FAIL;
-            currentTest.log(status, stepDescription);
+            log(currentTest, status, stepDescription);
 
             if (takeScreenshot) {
                 captureScreenshotForStep(stepDescription);
@@ -78,7 +337,7 @@ public class ExtentManager {
             // Obtener el driver del thread actual (necesitaremos pasarlo como parámetro)
             // Por ahora, lo manejaremos desde BaseTest
         } catch (Exception e) {
-            getTest().log(Status.WARNING, "No se pudo capturar screenshot: " + e.getMessage());
+            log(Status.WARNING, "No se pudo capturar screenshot: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -22,7 +22,13 @@ public class ExtentTestListener implements ITestListener {
             description = "Test execution for: " + testName;
         }
 
-        ExtentManager.createTest(testName, description);
+        if (RetryAnalyzer.isAttemptReportingEnabled()) {
+            // Cada intento es un nodo del mismo test en lugar de un test duplicado
+            int attempt = RetryAnalyzer.startAttempt(result);
+            ExtentManager.createAttempt(RetryAnalyzer.keyOf(result), testName, description, attempt);
+        } else {
+            ExtentManager.createTest(testName, description);
+        }
         // REMOVIDO: No agregar log de "Test started" para mantener reporte limpio
     }
 
@@ -34,30 +40,60 @@ public class ExtentTestListener implements ITestListener {
         // COMENTADO: La siguiente línea genera el mensaje "Test PASSED" que no quieres
         // ExtentTest test = ExtentManager.getTest();
         // test.log(Status.PASS, MarkupHelper.createLabel("Test PASSED: " + result.getMethod().getMethodName(), ExtentColor.GREEN));
+
+        BaseTest.logTestSummaries();
+        complete(result, ExtentManager.getTest());
+        TestDurationHistory.record(result);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         ExtentTest test = ExtentManager.getTest();
-        test.log(Status.FAIL, MarkupHelper.createLabel("Test FAILED: " + result.getMethod().getMethodName(), ExtentColor.RED));
+        ExtentManager.log(test, Status.FAIL, MarkupHelper.createLabel("Test FAILED: " + result.getMethod().getMethodName(), ExtentColor.RED));
 
         // Log del error
-        test.log(Status.FAIL, "Failure reason: " + result.getThrowable().getMessage());
+        ExtentManager.log(test, Status.FAIL, "Failure reason: " + result.getThrowable().getMessage());
+
+        BaseTest.logTestSummaries();
 
         // OPCIONAL: Solo capturar screenshot en fallas si no hay ninguno en los steps
         // captureScreenshot(result, "FAILED", "error");
+
+        complete(result, test);
+        TestDurationHistory.record(result);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
         ExtentTest test = ExtentManager.getTest();
-        test.log(Status.SKIP, MarkupHelper.createLabel("Test SKIPPED: " + result.getMethod().getMethodName(), ExtentColor.YELLOW));
-        test.log(Status.SKIP, "Skip reason: " + result.getThrowable().getMessage());
+        String reason = result.getThrowable() != null ? result.getThrowable().getMessage() : "unknown";
+        BaseTest.logTestSummaries();
+        if (result.wasRetried()) {
+            // Intento fallido que TestNG va a reintentar: el test sigue abierto para el siguiente intento
+            ExtentManager.markAttemptRetried(test, reason);
+            return;
+        }
+        ExtentManager.log(test, Status.SKIP, MarkupHelper.createLabel("Test SKIPPED: " + result.getMethod().getMethodName(), ExtentColor.YELLOW));
+        ExtentManager.log(test, Status.SKIP, "Skip reason: " + reason);
+        complete(result, test);
+    }
+
+    private void complete(ITestResult result, ExtentTest test) {
+        if (RetryAnalyzer.isAttemptReportingEnabled()) {
+            ExtentManager.completeAttempts(RetryAnalyzer.keyOf(result));
+        } else {
+            ExtentManager.completeTest(test);
+        }
     }
 
     @Override
     public void onFinish(org.testng.ITestContext context) {
-        ExtentManager.flushReport();
+        TestDurationHistory.save();
+
+        // En paralelo otros <test> siguen escribiendo; el flush completo se hace en @AfterSuite
+        if (!ConfigReader.isParallelEnabled()) {
+            ExtentManager.flushReport();
+        }
     }
 
     /**
@@ -72,11 +108,11 @@ public class ExtentTestListener implements ITestListener {
                 if (driver != null) {
                     String base64Screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
                     String imageHtml = ScreenshotUtils.generateScreenshotHtml(base64Screenshot, styleName, status);
-                    ExtentManager.getTest().log(Status.INFO, imageHtml);
+                    ExtentManager.log(Status.INFO, imageHtml);
                 }
             }
         } catch (Exception e) {
-            ExtentManager.getTest().log(Status.WARNING, ScreenshotUtils.getErrorMessage() + ": " + e.getMessage());
+            ExtentManager.log(Status.WARNING, ScreenshotUtils.getErrorMessage() + ": " + e.getMessage());
         }
     }
 }
\ No newline at end of file
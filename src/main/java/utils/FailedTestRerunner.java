@@ -0,0 +1,122 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repaso final opcional (retry.rerun.failed=true): al terminar la suite vuelve a ejecutar una vez,
+ * en la misma JVM, solo los métodos que quedaron fallidos tras sus reintentos.
+ * - la suite de repaso conserva listeners, parámetros y paralelismo de la original
+ * - cada ejecución se añade como un intento más del mismo test en el reporte; si pasa, los
+ *   intentos fallidos anteriores quedan como WARNING (en modo report.mode=streaming el test ya
+ *   se escribió, así que el repaso aparece como un test nuevo)
+ * - el resultado de TestNG/Maven sigue siendo el de la suite original
+ * - BaseTest aplaza el cierre de la suite original (reporte, pool, sesiones) hasta que termina el repaso
+ */
+public class FailedTestRerunner implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(FailedTestRerunner.class);
+
+    private static volatile boolean rerunning;
+
+    public static boolean isRerunning() {
+        return rerunning;
+    }
+
+    /**
+     * Indica si al terminar esta suite se va a lanzar el repaso de fallidos
+     */
+    public static boolean isRerunPending(ISuite suite) {
+        return ConfigReader.isRetryRerunFailedEnabled() && !rerunning && !collectFailures(suite).isEmpty();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!isRerunPending(suite)) {
+            return;
+        }
+        Map<String, Map<String, Set<String>>> failures = collectFailures(suite);
+        XmlSuite rerunSuite = toRerunSuite(suite.getXmlSuite(), failures);
+        logger.info("Rerunning {} failed method(s) of suite '{}'", countMethods(failures), suite.getName());
+
+        rerunning = true;
+        try {
+            TestNG testng = new TestNG(false);
+            testng.setXmlSuites(Collections.singletonList(rerunSuite));
+            testng.run();
+            logger.info("Rerun of suite '{}' finished with status {}", suite.getName(), testng.getStatus());
+        } catch (RuntimeException e) {
+            logger.error("Rerun of failed tests could not run: {}", e.getMessage());
+            // El repaso no llegó a cerrar la suite: se cierra aquí lo que BaseTest aplazó
+            ExtentManager.closeReport();
+        } finally {
+            rerunning = false;
+        }
+    }
+
+    /**
+     * Métodos fallidos agrupados por &lt;test&gt; y clase, en el orden en que fallaron
+     */
+    private static Map<String, Map<String, Set<String>>> collectFailures(ISuite suite) {
+        Map<String, Map<String, Set<String>>> failures = new LinkedHashMap<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            for (ITestResult result : context.getFailedTests().getAllResults()) {
+                ITestNGMethod method = result.getMethod();
+                failures.computeIfAbsent(context.getName(), name -> new LinkedHashMap<>())
+                        .computeIfAbsent(method.getRealClass().getName(), name -> new LinkedHashSet<>())
+                        .add(method.getMethodName());
+            }
+        }
+        return failures;
+    }
+
+    private static XmlSuite toRerunSuite(XmlSuite suite, Map<String, Map<String, Set<String>>> failures) {
+        // Igual que los shards: shallowCopy conserva la configuración, la lista de tests es propia
+        XmlSuite rerunSuite = suite.shallowCopy();
+        rerunSuite.setName(suite.getName() + " (rerun)");
+        rerunSuite.setTests(new ArrayList<>());
+
+        for (XmlTest test : suite.getTests()) {
+            Map<String, Set<String>> failedClasses = failures.get(test.getName());
+            if (failedClasses == null) {
+                continue;
+            }
+            XmlTest rerunTest = new XmlTest(rerunSuite);
+            rerunTest.setName(test.getName());
+            rerunTest.setParameters(test.getLocalParameters());
+            List<XmlClass> classes = new ArrayList<>();
+            for (Map.Entry<String, Set<String>> entry : failedClasses.entrySet()) {
+                List<XmlInclude> includes = new ArrayList<>();
+                entry.getValue().forEach(method -> includes.add(new XmlInclude(method)));
+                XmlClass rerunClass = new XmlClass(entry.getKey(), false);
+                rerunClass.setIncludedMethods(includes);
+                classes.add(rerunClass);
+            }
+            rerunTest.setXmlClasses(classes);
+        }
+        return rerunSuite;
+    }
+
+    private static int countMethods(Map<String, Map<String, Set<String>>> failures) {
+        return failures.values().stream().flatMap(classes -> classes.values().stream()).mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,49 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Aplica el modo de ejecución paralela definido en config.properties a las suites de TestNG,
+ * para no tener que mantener el atributo parallel/thread-count a mano en cada testng.xml.
+ * Debe registrarse en la sección listeners del testng.xml.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = ConfigReader.getParallelMode();
+        XmlSuite.ParallelMode parallelMode;
+        try {
+            parallelMode = XmlSuite.ParallelMode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para parallel.mode: '" + mode
+                    + "'. Usar none, methods, classes, tests o instances", e);
+        }
+
+        int threads = ConfigReader.getParallelThreads();
+        for (XmlSuite suite : suites) {
+            suite.setParallel(parallelMode);
+            if (parallelMode != XmlSuite.ParallelMode.NONE) {
+                suite.setThreadCount(threads);
+                suite.setDataProviderThreadCount(threads);
+            }
+            logger.info("Suite '{}' running with parallel={} threads={}", suite.getName(), parallelMode, threads);
+        }
+
+        if (ConfigReader.isDriverPoolEnabled() && ConfigReader.getDriverPoolSize() < threads) {
+            logger.warn("driver.pool.size ({}) is lower than parallel.threads ({}); tests will wait for drivers",
+                    ConfigReader.getDriverPoolSize(), threads);
+        }
+        int gridSessions = ConfigReader.getGridMaxSessions();
+        if (ConfigReader.isRemoteExecution() && gridSessions > 0 && gridSessions < threads) {
+            logger.warn("grid.max.sessions ({}) is lower than parallel.threads ({}); tests will wait for Grid sessions",
+                    gridSessions, threads);
+        }
+    }
+}
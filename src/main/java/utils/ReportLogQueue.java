@@ -0,0 +1,231 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola acotada de logs del reporte con un único hilo escritor (report.log.async=true).
+ * Los hilos de test solo encolan el evento; el escritor los aplica al modelo de ExtentReports
+ * en lotes, tomando el lock del reporte una vez por lote. Al haber un solo consumidor FIFO,
+ * los logs de cada test se aplican en el mismo orden en que se registraron.
+ *
+ * Si la cola está llena el hilo de test espera (backpressure) y se contabiliza en las métricas.
+ * Cualquier operación que lea el modelo (completar un test, flush) debe llamar antes a drain().
+ */
+public class ReportLogQueue {
+    private static final Logger logger = LoggerFactory.getLogger(ReportLogQueue.class);
+    private static final int MAX_BATCH = 256;
+
+    private final BlockingQueue<LogEvent> queue;
+    private final Object modelLock;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong blockedSubmits = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * Log pendiente; los eventos con barrier solo marcan un punto de la cola para drain()
+     */
+    private static class LogEvent {
+        final ExtentTest test;
+        final Status status;
+        final String details;
+        final Markup markup;
+        final CountDownLatch barrier;
+
+        LogEvent(ExtentTest test, Status status, String details, Markup markup, CountDownLatch barrier) {
+            this.test = test;
+            this.status = status;
+            this.details = details;
+            this.markup = markup;
+            this.barrier = barrier;
+        }
+    }
+
+    /**
+     * @param capacity  Eventos que caben en la cola antes de frenar a los hilos de test
+     * @param modelLock Lock que protege el modelo del reporte
+     */
+    public ReportLogQueue(int capacity, Object modelLock) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.modelLock = modelLock;
+        this.writer = new Thread(this::run, "extent-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void submit(ExtentTest test, Status status, String details) {
+        enqueue(new LogEvent(test, status, details, null, null));
+    }
+
+    public void submit(ExtentTest test, Status status, Markup markup) {
+        enqueue(new LogEvent(test, status, null, markup, null));
+    }
+
+    /**
+     * Espera a que se apliquen todos los logs encolados hasta este momento
+     *
+     * @return false si no se vaciaron dentro del tiempo indicado
+     */
+    public boolean drain(long timeoutMillis) {
+        if (Thread.currentThread() == writer || applied.get() == submitted.get()) {
+            return true;
+        }
+        CountDownLatch barrier = new CountDownLatch(1);
+        if (!running || !put(new LogEvent(null, null, null, null, barrier))) {
+            return applied.get() == submitted.get();
+        }
+        try {
+            return barrier.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Vacía la cola y detiene el escritor; los logs posteriores se aplican en el hilo que los registra
+     */
+    public void shutdown(long timeoutMillis) {
+        drain(timeoutMillis);
+        running = false;
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que se haya encolado mientras el escritor terminaba
+        applyRemaining();
+    }
+
+    public String getStats() {
+        long blocked = blockedSubmits.get();
+        return String.format("logs=%d, batches=%d, max depth=%d/%d, blocked submits=%d (%d ms), failures=%d",
+                applied.get(), batches.get(), maxDepth.get(), queue.size() + queue.remainingCapacity(),
+                blocked, blockedNanos.get() / 1_000_000, failures.get());
+    }
+
+    private void enqueue(LogEvent event) {
+        if (!running) {
+            synchronized (modelLock) {
+                apply(event);
+            }
+            return;
+        }
+        submitted.incrementAndGet();
+        if (!put(event)) {
+            // Interrumpido esperando sitio: el log se aplica aquí para no perderlo
+            synchronized (modelLock) {
+                apply(event);
+            }
+            applied.incrementAndGet();
+            return;
+        }
+        if (!running) {
+            // shutdown() empezó después de comprobar running: puede que ya nadie lea la cola
+            applyRemaining();
+        }
+    }
+
+    /**
+     * Aplica en el hilo actual lo que quede en la cola. Con el lock del modelo tomado, un hilo que
+     * aplique después un log directamente no puede adelantarse a los suyos aún pendientes.
+     */
+    private void applyRemaining() {
+        synchronized (modelLock) {
+            List<LogEvent> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                applyBatch(remaining);
+            }
+        }
+    }
+
+    private boolean put(LogEvent event) {
+        if (!queue.offer(event)) {
+            blockedSubmits.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    private void run() {
+        List<LogEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                LogEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                applyBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<LogEvent> batch) {
+        int logs = 0;
+        synchronized (modelLock) {
+            for (LogEvent event : batch) {
+                if (event.barrier == null) {
+                    apply(event);
+                    logs++;
+                }
+            }
+        }
+        applied.addAndGet(logs);
+        batches.incrementAndGet();
+        // Las barreras se liberan fuera del lock, con todos los logs anteriores ya aplicados
+        for (LogEvent event : batch) {
+            if (event.barrier != null) {
+                event.barrier.countDown();
+            }
+        }
+    }
+
+    private void apply(LogEvent event) {
+        try {
+            if (event.markup != null) {
+                event.test.log(event.status, event.markup);
+            } else {
+                event.test.log(event.status, event.details);
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            logger.error("Error applying report log: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combina los resultados JSONL de varios shards (ShardResultsWriter) en un único reporte.
+ * Los archivos se leen línea a línea, así que en memoria solo hay un registro de test a la vez:
+ * - spark (por defecto): reporte Spark; el modelo combinado sí queda en memoria hasta el flush
+ * - --streaming: reporte incremental (StreamingReportWriter); cada test se escribe y se descarta,
+ *   para combinar muchos shards con memoria acotada
+ *
+ * Las rutas de screenshots en modo file son relativas al directorio del reporte, así que la salida
+ * debe quedar en el mismo directorio que la carpeta screenshots de los shards.
+ *
+ * Uso: ReportMerger [--streaming] &lt;salida.html&gt; [resultados.jsonl|directorio ...]
+ */
+public class ReportMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ReportMerger.class);
+    private static final String TITLE = "Test Execution Report (merged)";
+
+    private final Json json = new Json();
+    private final ExtentReports extent = new ExtentReports();
+    private final StreamingReportWriter streamingWriter;
+    private final Path output;
+    private int files;
+    private int tests;
+    private int skippedLines;
+
+    private ReportMerger(Path output, boolean streaming) throws IOException {
+        this.output = output;
+        if (streaming) {
+            this.streamingWriter = new StreamingReportWriter(output.toString(), TITLE);
+        } else {
+            this.streamingWriter = null;
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            extent.attachReporter(ExtentManager.createSparkReporter(output.toString()));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean streaming = false;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if ("--streaming".equals(arg)) {
+                streaming = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println("Uso: ReportMerger [--streaming] <salida.html> [resultados.jsonl|directorio ...]");
+            System.exit(1);
+        }
+        List<Path> inputs = new ArrayList<>();
+        if (positional.size() > 1) {
+            positional.subList(1, positional.size()).forEach(input -> inputs.add(Paths.get(input)));
+        } else {
+            inputs.add(Paths.get(ExtentManager.getReportDirectory(), ShardResultsWriter.RESULTS_DIR));
+        }
+        merge(resolveInputs(inputs), Paths.get(positional.get(0)), streaming);
+    }
+
+    /**
+     * @param resultFiles Archivos JSONL de ShardResultsWriter, en el orden en que se añaden al reporte
+     * @param output      Reporte HTML a generar
+     * @param streaming   true para el reporte incremental en lugar de Spark
+     * @return Número de tests combinados
+     */
+    public static int merge(List<Path> resultFiles, Path output, boolean streaming) throws IOException {
+        if (resultFiles.isEmpty()) {
+            throw new IllegalArgumentException("No hay archivos de resultados para combinar");
+        }
+        ReportMerger merger = new ReportMerger(output, streaming);
+        for (Path file : resultFiles) {
+            merger.read(file);
+        }
+        merger.finish();
+        return merger.tests;
+    }
+
+    /**
+     * Archivos *.jsonl de los directorios indicados (ordenados por nombre) y archivos sueltos
+     */
+    static List<Path> resolveInputs(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> listing = Files.list(input)) {
+                    files.addAll(listing.filter(path -> path.getFileName().toString().endsWith(".jsonl"))
+                            .sorted().collect(Collectors.toList()));
+                }
+            } else if (Files.exists(input)) {
+                files.add(input);
+            } else {
+                logger.warn("Results file not found: {}", input);
+            }
+        }
+        return files;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void read(Path file) throws IOException {
+        String shardLabel = file.getFileName().toString();
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> record;
+                try {
+                    record = json.toType(line, Json.MAP_TYPE);
+                } catch (JsonException e) {
+                    // Normalmente la última línea de un shard interrumpido
+                    skippedLines++;
+                    logger.warn("Skipping unreadable line {} of {}: {}", lineNumber, file, e.getMessage());
+                    continue;
+                }
+                switch (String.valueOf(record.get("type"))) {
+                    case "run":
+                        shardLabel = "Shard " + (number(record.get("shard")) + 1) + "/" + number(record.get("shards"))
+                                + " (" + record.get("host") + ", " + record.get("run") + ")";
+                        break;
+                    case "test":
+                        addTest(record);
+                        break;
+                    case "end":
+                        Map<String, Object> info = (Map<String, Object>) record.getOrDefault("systemInfo", Collections.emptyMap());
+                        for (Map.Entry<String, Object> entry : info.entrySet()) {
+                            extent.setSystemInfo(shardLabel + " - " + entry.getKey(), String.valueOf(entry.getValue()));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        files++;
+        logger.info("Merged {}", file);
+    }
+
+    private void addTest(Map<String, Object> record) {
+        ExtentTest test = extent.createTest(String.valueOf(record.get("name")), (String) record.get("description"));
+        fill(test, record);
+        tests++;
+        if (streamingWriter != null) {
+            streamingWriter.append(test.getModel());
+            extent.removeTest(test);
+        }
+    }
+
+    /**
+     * Reconstruye logs, nodos, tiempos y estado del test tal como estaban en el shard
+     */
+    @SuppressWarnings("unchecked")
+    private void fill(ExtentTest test, Map<String, Object> record) {
+        for (Map<String, Object> entry : (List<Map<String, Object>>) record.getOrDefault("logs", Collections.emptyList())) {
+            String details = entry.get("details") != null ? String.valueOf(entry.get("details")) : "";
+            if (entry.get("exception") != null) {
+                details += "<pre>" + String.valueOf(entry.get("exception")).replace("&", "&amp;").replace("<", "&lt;") + "</pre>";
+            }
+            test.log(status(entry.get("status")), details);
+            List<Log> logs = test.getModel().getLogs();
+            logs.get(logs.size() - 1).setTimestamp(new Date(number(entry.get("timestamp"))));
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) record.getOrDefault("children", Collections.emptyList())) {
+            fill(test.createNode(String.valueOf(child.get("name")), (String) child.get("description")), child);
+        }
+        Test model = test.getModel();
+        model.setStartTime(new Date(number(record.get("start"))));
+        model.setEndTime(new Date(number(record.get("end"))));
+        // Estado explícito: un intento reintentado es WARNING aunque tenga logs FAIL
+        model.setStatus(status(record.get("status")));
+    }
+
+    private void finish() {
+        if (streamingWriter != null) {
+            streamingWriter.close();
+        } else {
+            extent.setSystemInfo("Merged shards", String.valueOf(files));
+            extent.flush();
+        }
+        logger.info("Merged {} tests from {} file(s) into {}{}", tests, files, output,
+                skippedLines > 0 ? " (" + skippedLines + " unreadable lines skipped)" : "");
+    }
+
+    private static Status status(Object value) {
+        try {
+            return Status.valueOf(String.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            return Status.INFO;
+        }
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
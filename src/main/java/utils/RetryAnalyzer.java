@@ -0,0 +1,72 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reintenta un test fallido hasta retry.max.attempts intentos en total (1 = sin reintentos).
+ * Se asigna a todos los tests con RetryTransformer; los tests con su propio retryAnalyzer lo conservan.
+ *
+ * Los intentos se cuentan por método + parámetros (ExtentTestListener los inicia en onTestStart),
+ * así el reporte agrupa todos los intentos bajo el mismo test.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(RetryAnalyzer.class);
+
+    private static final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    // Respaldo si el listener no está registrado y no hay contador compartido
+    private int localAttempts;
+
+    public static boolean isEnabled() {
+        return ConfigReader.getRetryMaxAttempts() > 1;
+    }
+
+    /**
+     * Los intentos se reportan como nodos de un mismo test si hay reintentos o repaso final de fallidos
+     */
+    public static boolean isAttemptReportingEnabled() {
+        return isEnabled() || ConfigReader.isRetryRerunFailedEnabled();
+    }
+
+    /**
+     * Clave estable de una invocación: clase.método más los parámetros del data provider
+     */
+    public static String keyOf(ITestResult result) {
+        String id = TestDurationHistory.testId(result.getTestClass().getRealClass(), result.getMethod().getMethodName());
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? id : id + Arrays.deepToString(parameters);
+    }
+
+    /**
+     * Registra el inicio de un intento y devuelve su número (1, 2, ...)
+     */
+    public static int startAttempt(ITestResult result) {
+        return attempts.merge(keyOf(result), 1, Integer::sum);
+    }
+
+    public static int getAttempt(ITestResult result) {
+        return attempts.getOrDefault(keyOf(result), 0);
+    }
+
+    @Override
+    public boolean retry(ITestResult result) {
+        int maxAttempts = ConfigReader.getRetryMaxAttempts();
+        int attempt = getAttempt(result);
+        if (attempt == 0) {
+            attempt = ++localAttempts;
+        }
+        boolean retry = attempt < maxAttempts;
+        if (retry) {
+            logger.warn("Retrying {} after failed attempt {}/{}: {}", keyOf(result), attempt, maxAttempts,
+                    result.getThrowable() != null ? result.getThrowable().getMessage() : "unknown error");
+        }
+        return retry;
+    }
+}
@@ -0,0 +1,165 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recodifica los screenshots (PNG del driver) según la configuración de &lt;encoding&gt;
+ * en screenshot-styles.xml: formato (png, jpeg o webp), calidad, tamaño máximo
+ * de la imagen completa y tamaño de la miniatura que se muestra en el step.
+ */
+public class ScreenshotEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotEncoder.class);
+    private static final AtomicBoolean webpWarningLogged = new AtomicBoolean(false);
+
+    /**
+     * Resultado de la codificación: imagen completa (para el modal) y miniatura opcional
+     */
+    public static class EncodedScreenshot {
+        public final byte[] full;
+        public final String fullFormat;
+        public final byte[] thumbnail;
+        public final String thumbnailFormat;
+
+        EncodedScreenshot(byte[] full, String fullFormat, byte[] thumbnail, String thumbnailFormat) {
+            this.full = full;
+            this.fullFormat = fullFormat;
+            this.thumbnail = thumbnail;
+            this.thumbnailFormat = thumbnailFormat;
+        }
+
+        public boolean hasThumbnail() {
+            return thumbnail != null;
+        }
+    }
+
+    /**
+     * Formato efectivo de salida (webp cae a jpeg si no hay un writer WebP disponible)
+     */
+    public static String getOutputFormat() {
+        String format = ScreenshotUtils.getEncodingConfig().format.toLowerCase();
+        if ("jpg".equals(format)) {
+            return "jpeg";
+        }
+        if ("webp".equals(format) && !ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+            if (webpWarningLogged.compareAndSet(false, true)) {
+                logger.warn("No WebP ImageIO writer on the classpath, encoding screenshots as JPEG");
+            }
+            return "jpeg";
+        }
+        return format;
+    }
+
+    public static boolean isThumbnailEnabled() {
+        return ScreenshotUtils.getEncodingConfig().thumbnailMaxDimension > 0;
+    }
+
+    /**
+     * Codifica un screenshot PNG. Si la imagen no se puede decodificar se devuelve tal cual.
+     */
+    public static EncodedScreenshot encode(byte[] pngBytes) {
+        ScreenshotUtils.EncodingConfig config = ScreenshotUtils.getEncodingConfig();
+        String format = getOutputFormat();
+        boolean keepOriginal = "png".equals(format) && config.maxDimension <= 0;
+
+        if (keepOriginal && config.thumbnailMaxDimension <= 0) {
+            return new EncodedScreenshot(pngBytes, "png", null, null);
+        }
+
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(pngBytes));
+            if (source == null) {
+                return new EncodedScreenshot(pngBytes, "png", null, null);
+            }
+
+            byte[] full = keepOriginal
+                    ? pngBytes
+                    : write(scale(source, config.maxDimension), format, config.quality);
+            byte[] thumbnail = config.thumbnailMaxDimension > 0
+                    ? write(scale(source, config.thumbnailMaxDimension), format, config.quality)
+                    : null;
+
+            return new EncodedScreenshot(full, keepOriginal ? "png" : format, thumbnail, thumbnail != null ? format : null);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Error encoding screenshot, keeping original PNG: {}", e.getMessage());
+            return new EncodedScreenshot(pngBytes, "png", null, null);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int largest = Math.max(width, height);
+        if (maxDimension <= 0 || largest <= maxDimension) {
+            return source;
+        }
+
+        double ratio = (double) maxDimension / largest;
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] write(BufferedImage image, String format, float quality) throws IOException {
+        if ("jpeg".equals(format) && image.getColorModel().hasAlpha()) {
+            image = toRgb(image);
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for format " + format);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && !"png".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+}
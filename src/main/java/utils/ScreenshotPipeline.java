@@ -0,0 +1,117 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de workers que codifica screenshots y genera su HTML fuera del hilo del test.
+ * El test solo paga la captura de bytes; el resto se espera al hacer commit del buffer.
+ * Con screenshot.dedupe.perceptual=true los workers también hacen la comparación perceptual
+ * (ScreenshotSimilarity), y una captura equivalente a la anterior no llega a codificarse.
+ */
+public class ScreenshotPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotPipeline.class);
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+
+    private static volatile ExecutorService executor;
+
+    public static boolean isEnabled() {
+        return ConfigReader.isAsyncScreenshotsEnabled();
+    }
+
+    /**
+     * Encola la codificación de un screenshot ya capturado
+     *
+     * @return Future con el HTML de la imagen (sin el script del modal)
+     */
+    public static Future<String> submit(byte[] imageBytes, String styleName, String context) {
+        ExecutorService workers = getExecutor();
+        if (!ScreenshotSimilarity.isEnabled()) {
+            return workers.submit(() -> ScreenshotUtils.generateImageHtml(imageBytes, styleName, context));
+        }
+        // La referencia espera sin bloquear un worker a que la imagen original termine de guardarse
+        return ScreenshotSimilarity.findSimilar(imageBytes, workers).thenComposeAsync(similarId -> similarId != null
+                ? ScreenshotUtils.generateReferenceImageHtml(similarId, styleName)
+                : CompletableFuture.completedFuture(ScreenshotUtils.generateImageHtml(imageBytes, styleName, context)), workers);
+    }
+
+    /**
+     * Espera el HTML de un screenshot encolado
+     *
+     * @return HTML generado o null si la codificación falló o fue cancelada
+     */
+    public static String await(Future<String> future) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            logger.error("Error encoding screenshot: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Descarta un screenshot que no se va a escribir en el reporte
+     */
+    public static void discard(Future<String> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public static void shutdown() {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    private static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (ScreenshotPipeline.class) {
+                if (executor == null) {
+                    int threads = Math.max(1, ConfigReader.getAsyncScreenshotThreads());
+                    executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+                    logger.info("Screenshot pipeline started with {} worker(s)", threads);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "screenshot-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Descarta capturas casi idénticas a la anterior del mismo test (screenshot.dedupe.perceptual=true).
+ * Cada captura se resume con un dHash (diferencias de brillo entre celdas vecinas de una rejilla de
+ * screenshot.dedupe.hash.size x screenshot.dedupe.hash.size); si difiere de la última imagen
+ * conservada en screenshot.dedupe.threshold bits o menos, el step referencia esa imagen en lugar de
+ * codificar y embeber una nueva.
+ *
+ * Decodificar el PNG y calcular el hash se hace en los workers de ScreenshotPipeline, no en el hilo
+ * del test. Las comparaciones de un mismo test se encadenan en el orden de captura (cada una espera
+ * a la anterior), así que el resultado es el mismo que compararlas una tras otra. La cadena es por
+ * hilo; hay que llamar a reset() cuando se descartan steps para no referenciar imágenes que no
+ * llegan al reporte.
+ */
+public class ScreenshotSimilarity {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotSimilarity.class);
+
+    // Última imagen conservada del hilo; puede estar aún calculándose
+    private static final ThreadLocal<CompletableFuture<Capture>> previous = new ThreadLocal<>();
+    private static final AtomicLong compared = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+    private static final AtomicLong hashNanos = new AtomicLong();
+
+    /**
+     * Imagen analizada: su id en ScreenshotStore, su tamaño y su huella perceptual
+     */
+    private static class Capture {
+        final String id;
+        final int width;
+        final int height;
+        final int size;
+        final long[] hash;
+
+        Capture(String id, int width, int height, int size, long[] hash) {
+            this.id = id;
+            this.width = width;
+            this.height = height;
+            this.size = size;
+            this.hash = hash;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.isPerceptualDedupeEnabled();
+    }
+
+    /**
+     * Compara una captura con la última imagen conservada del hilo. Se llama desde el hilo del
+     * test, que solo encadena el trabajo; el análisis se ejecuta en {@code executor}.
+     *
+     * @param pngBytes Bytes PNG tal como los devuelve el driver
+     * @return Future con el id de la imagen anterior si la captura es equivalente (y se debe
+     * descartar), o con null si la captura se conserva y pasa a ser la referencia de las siguientes
+     */
+    public static CompletableFuture<String> findSimilar(byte[] pngBytes, Executor executor) {
+        if (!isEnabled() || pngBytes == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Capture> current = CompletableFuture.supplyAsync(() -> analyze(pngBytes), executor)
+                .exceptionally(e -> {
+                    logger.debug("Screenshot similarity check failed: {}", e.getMessage());
+                    return null;
+                });
+        CompletableFuture<Capture> last = previous.get();
+        if (last == null) {
+            last = CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Capture> kept = last;
+        CompletableFuture<String> similar = last.thenCombine(current, ScreenshotSimilarity::compare);
+        // Si esta captura se descarta, la siguiente se compara con la misma imagen que esta
+        previous.set(similar.thenCompose(id -> id != null ? kept : current));
+        return similar;
+    }
+
+    /**
+     * Olvida la última imagen del hilo (steps descartados o fin del test)
+     */
+    public static void reset() {
+        previous.remove();
+    }
+
+    public static String getStats() {
+        return String.format("compared=%d, dropped=%d, saved=%d KB, hashing=%d ms",
+                compared.get(), dropped.get(), bytesSaved.get() / 1024, hashNanos.get() / 1_000_000);
+    }
+
+    public static long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    private static Capture analyze(byte[] pngBytes) {
+        long start = System.nanoTime();
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(pngBytes));
+        } catch (IOException e) {
+            image = null;
+        }
+        if (image == null) {
+            logger.debug("Screenshot could not be decoded, skipping similarity check");
+            return null;
+        }
+        long[] hash = dHash(image, ConfigReader.getPerceptualDedupeHashSize());
+        hashNanos.addAndGet(System.nanoTime() - start);
+        return new Capture(ScreenshotStore.idOf(pngBytes), image.getWidth(), image.getHeight(), pngBytes.length, hash);
+    }
+
+    /**
+     * @return id de la imagen conservada si la captura es equivalente, o null
+     */
+    private static String compare(Capture last, Capture current) {
+        if (current == null) {
+            return null;
+        }
+        compared.incrementAndGet();
+        if (last != null && last.width == current.width && last.height == current.height
+                && distance(last.hash, current.hash) <= ConfigReader.getPerceptualDedupeThreshold()) {
+            dropped.incrementAndGet();
+            bytesSaved.addAndGet(current.size);
+            return last.id;
+        }
+        return null;
+    }
+
+    /**
+     * dHash: brillo medio de una rejilla de (size+1) x size celdas; cada bit indica si una celda
+     * es más clara que su vecina de la derecha
+     */
+    static long[] dHash(BufferedImage image, int size) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int columns = size + 1;
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[] cells = new double[columns * size];
+        for (int row = 0; row < size; row++) {
+            int y0 = row * height / size;
+            int y1 = Math.max(y0 + 1, (row + 1) * height / size);
+            for (int column = 0; column < columns; column++) {
+                int x0 = column * width / columns;
+                int x1 = Math.max(x0 + 1, (column + 1) * width / columns);
+                long sum = 0;
+                for (int y = y0; y < y1 && y < height; y++) {
+                    int offset = y * width;
+                    for (int x = x0; x < x1 && x < width; x++) {
+                        int rgb = pixels[offset + x];
+                        // Luminancia aproximada con pesos enteros (0.299, 0.587, 0.114)
+                        sum += ((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114;
+                    }
+                }
+                cells[row * columns + column] = (double) sum / ((long) (y1 - y0) * (x1 - x0));
+            }
+        }
+
+        long[] hash = new long[(size * size + 63) / 64];
+        int bit = 0;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if (cells[row * columns + column] > cells[row * columns + column + 1]) {
+                    hash[bit / 64] |= 1L << (bit % 64);
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    static int distance(long[] a, long[] b) {
+        if (a.length != b.length) {
+            return Integer.MAX_VALUE;
+        }
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,200 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacén de screenshots direccionado por contenido.
+ * Cada imagen se identifica por el hash de sus bytes, así que capturas idénticas
+ * (entre steps o entre tests) se guardan una sola vez:
+ * - file: se escribe en reports/screenshots/&lt;hash&gt;.&lt;ext&gt; (y su miniatura) y el reporte la referencia por ruta relativa
+ * - inline: se embebe en base64 la primera vez y las siguientes la referencian por id
+ */
+public class ScreenshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+    public static final String SCREENSHOTS_DIR = "screenshots";
+
+    private static final Set<String> knownIds = ConcurrentHashMap.newKeySet();
+    // Modo file: lo que escribió (o va a escribir) la primera aparición de cada id
+    private static final Map<String, CompletableFuture<StoredScreenshot>> storedFiles = new ConcurrentHashMap<>();
+    private static final AtomicLong uniqueCount = new AtomicLong();
+    private static final AtomicLong duplicateCount = new AtomicLong();
+    private static final AtomicLong bytesCaptured = new AtomicLong();
+    private static final AtomicLong bytesStored = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Referencia a una imagen almacenada
+     */
+    public static class StoredScreenshot {
+        public final String id;
+        public final String src;
+        public final String fullSrc;
+
+        StoredScreenshot(String id, String src, String fullSrc) {
+            this.id = id;
+            this.src = src;
+            this.fullSrc = fullSrc;
+        }
+
+        /**
+         * true cuando el HTML debe resolver la imagen a partir de otra ya embebida
+         */
+        public boolean isReference() {
+            return src == null;
+        }
+    }
+
+    public static boolean isFileMode() {
+        return "file".equalsIgnoreCase(ConfigReader.getScreenshotStoreMode());
+    }
+
+    /**
+     * Guarda un screenshot y devuelve cómo referenciarlo desde el HTML.
+     * El id se calcula sobre la captura original, así que un duplicado no se vuelve a codificar.
+     *
+     * @param pngBytes     Bytes PNG tal como los devuelve el driver
+     * @param dedupeInline En modo inline, si se permite referenciar una imagen embebida previamente.
+     *                     Solo es seguro cuando el HTML se escribe en el reporte en el mismo orden
+     *                     en que se almacena. Con false la imagen se embebe sin registrarse: su step
+     *                     todavía puede descartarse, y una captura posterior no debe referenciarla.
+     */
+    public static StoredScreenshot store(byte[] pngBytes, boolean dedupeInline) {
+        String id = hash(pngBytes);
+        bytesCaptured.addAndGet(pngBytes.length);
+
+        if (!isFileMode() && !dedupeInline) {
+            uniqueCount.incrementAndGet();
+            return embed(id, pngBytes);
+        }
+
+        boolean firstOccurrence = knownIds.add(id);
+        if (firstOccurrence) {
+            uniqueCount.incrementAndGet();
+        } else {
+            duplicateCount.incrementAndGet();
+            bytesSaved.addAndGet(pngBytes.length);
+        }
+
+        if (isFileMode()) {
+            // La primera aparición ya está escribiendo en otro hilo: se espera a sus nombres reales,
+            // que dependen de si la codificación tuvo éxito (si falla se guarda el PNG sin miniatura)
+            return firstOccurrence ? writeFiles(id, pngBytes) : published(id).join();
+        }
+        return firstOccurrence ? embed(id, pngBytes) : new StoredScreenshot(id, null, null);
+    }
+
+    /**
+     * Referencia a una imagen ya almacenada (o en camino de estarlo) a partir de su id,
+     * sin volver a recibir sus bytes. En modo file se completa cuando la primera aparición
+     * termina de escribir sus archivos.
+     */
+    public static CompletableFuture<StoredScreenshot> reference(String id) {
+        if (!isFileMode()) {
+            return CompletableFuture.completedFuture(new StoredScreenshot(id, null, null));
+        }
+        return published(id);
+    }
+
+    /**
+     * Id con el que se almacena una captura (hash de sus bytes)
+     */
+    public static String idOf(byte[] pngBytes) {
+        return hash(pngBytes);
+    }
+
+    public static String getStats() {
+        return String.format("unique=%d, duplicates=%d, captured=%d KB, stored=%d KB, saved by dedup=%d KB",
+                uniqueCount.get(), duplicateCount.get(), bytesCaptured.get() / 1024,
+                bytesStored.get() / 1024, bytesSaved.get() / 1024);
+    }
+
+    public static long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    private static StoredScreenshot embed(String id, byte[] pngBytes) {
+        ScreenshotEncoder.EncodedScreenshot encoded = ScreenshotEncoder.encode(pngBytes);
+        String fullUri = dataUri(encoded.full, encoded.fullFormat);
+        bytesStored.addAndGet(encoded.full.length + (encoded.hasThumbnail() ? encoded.thumbnail.length : 0));
+        return encoded.hasThumbnail()
+                ? new StoredScreenshot(id, dataUri(encoded.thumbnail, encoded.thumbnailFormat), fullUri)
+                : new StoredScreenshot(id, fullUri, null);
+    }
+
+    private static String dataUri(byte[] bytes, String format) {
+        return "data:image/" + format + ";base64," + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static CompletableFuture<StoredScreenshot> published(String id) {
+        return storedFiles.computeIfAbsent(id, key -> new CompletableFuture<>());
+    }
+
+    private static StoredScreenshot writeFiles(String id, byte[] pngBytes) {
+        try {
+            StoredScreenshot stored = encodeAndWrite(id, pngBytes);
+            published(id).complete(stored);
+            return stored;
+        } catch (RuntimeException e) {
+            published(id).completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static StoredScreenshot encodeAndWrite(String id, byte[] pngBytes) {
+        ScreenshotEncoder.EncodedScreenshot encoded = ScreenshotEncoder.encode(pngBytes);
+        String fullName = id + "." + encoded.fullFormat;
+        writeFile(fullName, encoded.full);
+
+        StoredScreenshot stored;
+        if (encoded.hasThumbnail()) {
+            String thumbnailName = id + "_thumb." + encoded.thumbnailFormat;
+            writeFile(thumbnailName, encoded.thumbnail);
+            stored = new StoredScreenshot(id, SCREENSHOTS_DIR + "/" + thumbnailName, SCREENSHOTS_DIR + "/" + fullName);
+        } else {
+            stored = new StoredScreenshot(id, SCREENSHOTS_DIR + "/" + fullName, null);
+        }
+        return stored;
+    }
+
+    private static void writeFile(String fileName, byte[] imageBytes) {
+        Path directory = Paths.get(ExtentManager.getReportDirectory(), SCREENSHOTS_DIR);
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(fileName), imageBytes, StandardOpenOption.CREATE_NEW);
+            bytesStored.addAndGet(imageBytes.length);
+        } catch (FileAlreadyExistsException e) {
+            // Otra ejecución ya escribió el mismo contenido
+        } catch (IOException e) {
+            logger.error("Error writing screenshot {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -7,20 +9,28 @@ import org.w3c.dom.NodeList;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Utilidad para generar HTML de screenshots con modal integrado
  */
 public class ScreenshotUtils {
-
-    private static Map<String, ScreenshotStyle> styles = new HashMap<>();
-    private static ModalConfig modalConfig;
-    private static String tooltipMessage;
-    private static String errorMessage;
-    private static boolean configLoaded = false;
-    private static boolean modalStylesInjected = false;
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotUtils.class);
+
+    private static final Map<String, ScreenshotStyle> styles = new ConcurrentHashMap<>();
+    private static volatile ModalConfig modalConfig;
+    private static volatile EncodingConfig encodingConfig;
+    private static volatile String tooltipMessage;
+    private static volatile String errorMessage;
+    private static volatile boolean configLoaded = false;
+    private static final AtomicBoolean modalStylesInjected = new AtomicBoolean(false);
+    // Marcador 16:9 transparente que ocupa el sitio de la imagen hasta que se carga
+    private static final String LAZY_PLACEHOLDER =
+            "data:image/svg+xml,%3Csvg xmlns=%22http://www.w3.org/2000/svg%22 viewBox=%220 0 16 9%22/%3E";
 
     // Clases internas simplificadas
     public static class ScreenshotStyle {
@@ -51,12 +61,33 @@ public class ScreenshotUtils {
         }
     }
 
+    public static class EncodingConfig {
+        public final String format;
+        public final float quality;
+        public final int maxDimension;
+        public final int thumbnailMaxDimension;
+
+        public EncodingConfig(String format, float quality, int maxDimension, int thumbnailMaxDimension) {
+            this.format = format;
+            this.quality = quality;
+            this.maxDimension = maxDimension;
+            this.thumbnailMaxDimension = thumbnailMaxDimension;
+        }
+    }
+
     /**
      * Carga la configuración desde el archivo XML
      */
     private static void loadConfig() {
         if (configLoaded) return;
 
+        synchronized (ScreenshotUtils.class) {
+            if (configLoaded) return;
+            loadConfigFromXml();
+        }
+    }
+
+    private static void loadConfigFromXml() {
         try {
             InputStream xmlFile = ScreenshotUtils.class.getClassLoader()
                     .getResourceAsStream("screenshot-styles.xml");
@@ -74,6 +105,7 @@ public class ScreenshotUtils {
             loadStyles(doc);
             loadModalConfig(doc);
             loadMessages(doc);
+            loadEncodingConfig(doc);
 
             configLoaded = true;
 
@@ -114,6 +146,59 @@ public class ScreenshotUtils {
         errorMessage = getTextContent(messagesElement, "error-screenshot");
     }
 
+    /**
+     * Lee &lt;encoding&gt; del XML; las claves screenshot.* de config.properties tienen prioridad
+     */
+    private static void loadEncodingConfig(Document doc) {
+        NodeList encodingNodes = doc.getElementsByTagName("encoding");
+        if (encodingNodes.getLength() == 0) {
+            encodingConfig = buildEncodingConfig("png", "0.85", "0", "0");
+            return;
+        }
+        Element encodingElement = (Element) encodingNodes.item(0);
+        encodingConfig = buildEncodingConfig(
+                getTextContent(encodingElement, "format"),
+                getTextContent(encodingElement, "quality"),
+                getTextContent(encodingElement, "max-dimension"),
+                getTextContent(encodingElement, "thumbnail-max-dimension")
+        );
+    }
+
+    private static EncodingConfig buildEncodingConfig(String format, String quality, String maxDimension, String thumbnailMaxDimension) {
+        return new EncodingConfig(
+                override("screenshot.format", format, "png"),
+                (float) parseNumber("screenshot.quality", override("screenshot.quality", quality, "0.85"), 0.85, 0, 1),
+                (int) parseNumber("screenshot.max.dimension", override("screenshot.max.dimension", maxDimension, "0"), 0, 0, Integer.MAX_VALUE),
+                (int) parseNumber("screenshot.thumbnail.max.dimension",
+                        override("screenshot.thumbnail.max.dimension", thumbnailMaxDimension, "0"), 0, 0, Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Valor numérico de la codificación; uno inválido o fuera de rango no impide cargar
+     * el resto de la configuración y se sustituye por el valor por defecto
+     */
+    private static double parseNumber(String key, String value, double defaultValue, double min, double max) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        logger.warn("Invalid {} '{}' (expected {} to {}), using {}", key, value, min, max, defaultValue);
+        return defaultValue;
+    }
+
+    private static String override(String key, String xmlValue, String defaultValue) {
+        String value = ConfigReader.getProperty(key);
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+        return xmlValue == null || xmlValue.isEmpty() ? defaultValue : xmlValue;
+    }
+
     private static String getTextContent(Element parent, String tagName) {
         NodeList nodeList = parent.getElementsByTagName(tagName);
         return nodeList.getLength() > 0 ? nodeList.item(0).getTextContent().trim() : "";
@@ -146,6 +231,7 @@ public class ScreenshotUtils {
 
         tooltipMessage = "Click para ver en tamaño completo";
         errorMessage = "No se pudo capturar screenshot";
+        encodingConfig = buildEncodingConfig("png", "0.85", "0", "0");
         configLoaded = true;
     }
 
@@ -153,9 +239,8 @@ public class ScreenshotUtils {
      * Genera los estilos CSS y JavaScript para el modal (solo una vez)
      */
     private static String getModalScript() {
-        if (modalStylesInjected) return "";
-
-        modalStylesInjected = true;
+        // Solo el primer hilo que llegue inyecta el script en el reporte
+        if (!modalStylesInjected.compareAndSet(false, true)) return "";
 
         return "<script>" +
                 "if (!window.screenshotModalCreated) {" +
@@ -185,6 +270,60 @@ public class ScreenshotUtils {
                 "    document.getElementById('modalImage').src = src;" +
                 "    document.getElementById('screenshotModal').style.display = 'flex';" +
                 "  }" +
+                "  function resolveScreenshotRefs() {" +
+                "    var refs = document.querySelectorAll('img[data-shot-ref]');" +
+                "    for (var i = 0; i < refs.length; i++) {" +
+                "      var source = document.querySelector(\"img[data-shot-id='\" + refs[i].getAttribute('data-shot-ref') + \"']\");" +
+                "      var src = source && (source.getAttribute('data-src') || source.getAttribute('src'));" +
+                "      if (src) {" +
+                "        if (refs[i].hasAttribute('data-src')) refs[i].setAttribute('data-src', src); else refs[i].src = src;" +
+                "        if (source.hasAttribute('data-full')) refs[i].setAttribute('data-full', source.getAttribute('data-full'));" +
+                "        refs[i].removeAttribute('data-shot-ref');" +
+                "      }" +
+                "    }" +
+                "  }" +
+                // Carga diferida: la imagen se decodifica cuando su step se despliega o entra en pantalla.
+                // Spark copia el contenido oculto de un test al panel de detalle al seleccionarlo, así que
+                // las imágenes que se insertan después de la carga también se vigilan
+                "  var lazyObserver = null;" +
+                "  function loadScreenshot(img) {" +
+                "    var src = img.getAttribute('data-src');" +
+                "    if (src) { img.src = src; img.removeAttribute('data-src'); }" +
+                "  }" +
+                "  function trackScreenshots(root) {" +
+                "    if (!root || root.nodeType !== 1) return;" +
+                "    var lazy = root.matches && root.matches('img[data-src]') ? [root] : root.querySelectorAll('img[data-src]');" +
+                "    for (var i = 0; i < lazy.length; i++) {" +
+                "      if (lazyObserver) lazyObserver.observe(lazy[i]); else loadScreenshot(lazy[i]);" +
+                "    }" +
+                "  }" +
+                "  function detailPanel() {" +
+                "    return document.querySelector('.test-content-detail .detail-body');" +
+                "  }" +
+                "  function observeScreenshots() {" +
+                "    if ('IntersectionObserver' in window) {" +
+                "      lazyObserver = new IntersectionObserver(function(entries) {" +
+                "        entries.forEach(function(entry) {" +
+                "          if (entry.isIntersecting) { loadScreenshot(entry.target); lazyObserver.unobserve(entry.target); }" +
+                "        });" +
+                "      }, { rootMargin: '200px' });" +
+                "    }" +
+                "    trackScreenshots(document.body);" +
+                "    if ('MutationObserver' in window) {" +
+                "      new MutationObserver(function(mutations) {" +
+                "        mutations.forEach(function(mutation) {" +
+                "          for (var i = 0; i < mutation.addedNodes.length; i++) trackScreenshots(mutation.addedNodes[i]);" +
+                "        });" +
+                "      }).observe(detailPanel() || document.body, { childList: true, subtree: true });" +
+                "    } else {" +
+                "      document.addEventListener('click', function(e) {" +
+                "        if (e.target.closest && e.target.closest('.test-item')) {" +
+                "          setTimeout(function() { trackScreenshots(detailPanel() || document.body); }, 0);" +
+                "        }" +
+                "      });" +
+                "    }" +
+                "  }" +
+                "  document.addEventListener('DOMContentLoaded', function() { resolveScreenshotRefs(); observeScreenshots(); });" +
                 "  document.addEventListener('keydown', function(e) {" +
                 "    if (e.key === 'Escape') {" +
                 "      var modal = document.getElementById('screenshotModal');" +
@@ -199,14 +338,71 @@ public class ScreenshotUtils {
      * Genera el HTML para un screenshot con modal integrado
      */
     public static String generateScreenshotHtml(String base64Image, String styleName, String context) {
+        return generateScreenshotHtml(Base64.getDecoder().decode(base64Image), styleName, context);
+    }
+
+    /**
+     * Igual que {@link #generateScreenshotHtml(String, String, String)} pero a partir de los bytes PNG
+     */
+    public static String generateScreenshotHtml(byte[] imageBytes, String styleName, String context) {
+        loadConfig();
+        return getModalScript() + buildImageHtml(ScreenshotStore.store(imageBytes, true), styleName);
+    }
+
+    /**
+     * Genera solo el HTML de la imagen, sin el script del modal.
+     * Pensado para generarse fuera del hilo del test; el script se añade
+     * al escribir el step con {@link #withModalScript(String)}.
+     * Como el orden de escritura no está garantizado, en modo inline la imagen siempre se embebe.
+     */
+    public static String generateImageHtml(byte[] imageBytes, String styleName, String context) {
+        loadConfig();
+        return buildImageHtml(ScreenshotStore.store(imageBytes, false), styleName);
+    }
+
+    /**
+     * HTML de un step que muestra una imagen ya guardada por otro step (descarte perceptual).
+     * Como {@link #generateImageHtml(byte[], String, String)}, no incluye el script del modal.
+     * En modo file se completa cuando la imagen original ya tiene sus archivos escritos.
+     */
+    public static CompletableFuture<String> generateReferenceImageHtml(String screenshotId, String styleName) {
+        loadConfig();
+        return ScreenshotStore.reference(screenshotId).thenApply(stored -> buildImageHtml(stored, styleName));
+    }
+
+    /**
+     * Antepone el script del modal si todavía no se ha escrito en el reporte
+     */
+    public static String withModalScript(String imageHtml) {
         loadConfig();
+        return getModalScript() + imageHtml;
+    }
 
+    private static String buildImageHtml(ScreenshotStore.StoredScreenshot screenshot, String styleName) {
         ScreenshotStyle style = styles.getOrDefault(styleName, styles.get("standard"));
 
         StringBuilder html = new StringBuilder();
-        html.append(getModalScript());
         html.append("<div style='").append(style.containerStyle).append("'>");
-        html.append("<img src='data:image/png;base64,").append(base64Image).append("' ");
+        boolean lazy = ConfigReader.isScreenshotLazyLoadEnabled();
+        if (screenshot.isReference()) {
+            // La imagen ya está embebida en otro step: se resuelve al cargar el reporte
+            html.append("<img data-shot-ref='").append(screenshot.id).append("' ");
+            if (lazy) {
+                html.append("src='").append(LAZY_PLACEHOLDER).append("' data-src='' ");
+            }
+        } else {
+            html.append("<img data-shot-id='").append(screenshot.id).append("' ");
+            if (lazy) {
+                // El navegador no decodifica data-src: la imagen se carga desde el script del modal
+                html.append("src='").append(LAZY_PLACEHOLDER).append("' data-src='").append(screenshot.src).append("' ");
+            } else {
+                html.append("src='").append(screenshot.src).append("' ");
+            }
+            if (screenshot.fullSrc != null) {
+                // La miniatura se muestra en el step; la imagen completa solo en el modal
+                html.append("data-full='").append(screenshot.fullSrc).append("' ");
+            }
+        }
         html.append("style='").append(style.imageStyle).append("' ");
 
         if (!style.hoverIn.isEmpty()) {
@@ -216,13 +412,21 @@ public class ScreenshotUtils {
             html.append("onmouseout=\"").append(style.hoverOut).append("\" ");
         }
 
-        html.append("onclick=\"showScreenshot('data:image/png;base64,").append(base64Image).append("')\" ");
+        html.append("onclick=\"showScreenshot(this.getAttribute('data-full') || this.getAttribute('data-src') || this.src)\" ");
         html.append("title='").append(tooltipMessage).append("'/>");
         html.append("</div>");
 
         return html.toString();
     }
 
+    /**
+     * Obtiene la configuración de codificación de imágenes
+     */
+    public static EncodingConfig getEncodingConfig() {
+        loadConfig();
+        return encodingConfig;
+    }
+
     /**
      * Obtiene el mensaje de error configurado
      */
@@ -0,0 +1,71 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ejecuta solo los métodos del shard shard.index (0 .. shard.total-1) usando el mismo
+ * reparto por duración que ShardPlanner. El reparto se calcula una vez por suite sobre los
+ * métodos de todos sus &lt;test&gt;, igual que al generar los archivos testng-shard-N.xml,
+ * y cada &lt;test&gt; ejecuta la parte que le corresponde.
+ * Los métodos que la suite no declara por clase (p. ej. &lt;packages&gt;) se reparten por hash.
+ * Con shard.total=1 (por defecto) no filtra nada.
+ *
+ * mvn test -Dshard.total=4 -Dshard.index=0
+ */
+public class ShardMethodInterceptor implements IMethodInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ShardMethodInterceptor.class);
+    // Un reparto por suite, compartido por todos sus <test>
+    private static final Map<XmlSuite, List<List<String>>> plans = new IdentityHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int total = ConfigReader.getShardTotal();
+        // El repaso de fallidos ya contiene solo métodos de este shard
+        if (total <= 1 || FailedTestRerunner.isRerunning()) {
+            return methods;
+        }
+        int index = ConfigReader.getShardIndex();
+
+        Map<String, Long> durations = TestDurationHistory.load();
+        List<List<String>> plan = planFor(context.getSuite().getXmlSuite(), durations, total);
+        Set<String> planned = new HashSet<>();
+        plan.forEach(planned::addAll);
+        Set<String> selected = new HashSet<>(plan.get(index));
+
+        List<IMethodInstance> shardMethods = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String id = idOf(method);
+            boolean inShard = planned.contains(id)
+                    ? selected.contains(id)
+                    : Math.floorMod(id.hashCode(), total) == index;
+            if (inShard) {
+                shardMethods.add(method);
+            }
+        }
+        logger.info("Shard {}/{} of '{}': running {} of {} methods (~{} ms estimated for the suite shard)", index + 1, total,
+                context.getName(), shardMethods.size(), methods.size(), ShardPlanner.estimate(plan, durations).get(index));
+        return shardMethods;
+    }
+
+    private static List<List<String>> planFor(XmlSuite suite, Map<String, Long> durations, int total) {
+        synchronized (plans) {
+            return plans.computeIfAbsent(suite, key -> ShardPlanner.plan(ShardPlanner.suiteTestIds(key), durations, total));
+        }
+    }
+
+    private static String idOf(IMethodInstance method) {
+        return TestDurationHistory.testId(method.getMethod().getRealClass(), method.getMethod().getMethodName());
+    }
+}
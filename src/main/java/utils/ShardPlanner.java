@@ -0,0 +1,203 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reparte tests en N shards equilibrados según su duración histórica (TestDurationHistory):
+ * - tests con historial: longest-processing-time, el más largo primero al shard con menos carga
+ * - tests sin historial: round-robin entre los shards, empezando por el de menos carga
+ * El reparto es determinista (mismos tests e historial dan los mismos shards), así que cada
+ * JVM o agente puede calcularlo por su cuenta con ShardMethodInterceptor, o se pueden generar
+ * archivos testng-shard-N.xml con el main de esta clase.
+ */
+public class ShardPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(ShardPlanner.class);
+
+    /**
+     * @param testIds   Identificadores clase.método
+     * @param durations Duraciones conocidas en ms
+     * @param shards    Número de shards
+     * @return Lista de shards, cada uno con sus identificadores
+     */
+    public static List<List<String>> plan(Collection<String> testIds, Map<String, Long> durations, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("El número de shards debe ser al menos 1: " + shards);
+        }
+        List<List<String>> plan = new ArrayList<>();
+        long[] loads = new long[shards];
+        for (int i = 0; i < shards; i++) {
+            plan.add(new ArrayList<>());
+        }
+
+        List<String> known = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (String id : new TreeSet<>(testIds)) {
+            (durations.containsKey(id) ? known : unknown).add(id);
+        }
+        known.sort(Comparator.comparing((String id) -> durations.get(id)).reversed().thenComparing(id -> id));
+
+        PriorityQueue<Integer> byLoad = new PriorityQueue<>(
+                Comparator.comparingLong((Integer shard) -> loads[shard]).thenComparingInt(shard -> shard));
+        for (int i = 0; i < shards; i++) {
+            byLoad.add(i);
+        }
+        for (String id : known) {
+            int shard = byLoad.poll();
+            plan.get(shard).add(id);
+            loads[shard] += durations.get(id);
+            byLoad.add(shard);
+        }
+
+        // Round-robin empezando por los shards con menos carga conocida
+        List<Integer> order = new ArrayList<>();
+        while (!byLoad.isEmpty()) {
+            order.add(byLoad.poll());
+        }
+        for (int i = 0; i < unknown.size(); i++) {
+            plan.get(order.get(i % shards)).add(unknown.get(i));
+        }
+        return plan;
+    }
+
+    /**
+     * Duración estimada (ms) de cada shard; los tests sin historial cuentan 0
+     */
+    public static List<Long> estimate(List<List<String>> plan, Map<String, Long> durations) {
+        List<Long> estimates = new ArrayList<>();
+        for (List<String> shard : plan) {
+            estimates.add(shard.stream().mapToLong(id -> durations.getOrDefault(id, 0L)).sum());
+        }
+        return estimates;
+    }
+
+    /**
+     * Genera testng-shard-1.xml ... testng-shard-N.xml a partir de una suite.
+     * Uso: ShardPlanner &lt;shards&gt; [suite=testng.xml] [directorio=.]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: ShardPlanner <shards> [suite=testng.xml] [directorio=.]");
+            System.exit(1);
+        }
+        int shards = Integer.parseInt(args[0]);
+        Path suiteFile = Paths.get(args.length > 1 ? args[1] : "testng.xml");
+        Path outputDir = Paths.get(args.length > 2 ? args[2] : ".");
+        writeShardSuites(suiteFile, outputDir, shards);
+    }
+
+    public static List<Path> writeShardSuites(Path suiteFile, Path outputDir, int shards) throws IOException {
+        // Solo la suite raíz: las suites anidadas con <suite-files> no se reparten
+        XmlSuite suite = new Parser(suiteFile.toString()).parseToList().get(0);
+        Map<String, Long> durations = TestDurationHistory.load();
+        List<List<String>> plan = plan(suiteTestIds(suite), durations, shards);
+        List<Long> estimates = estimate(plan, durations);
+
+        Files.createDirectories(outputDir);
+        List<Path> written = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            Set<String> shardIds = new HashSet<>(plan.get(shard));
+            XmlSuite shardSuite = toShardSuite(suite, shardIds, shard, shards);
+            Path file = outputDir.resolve("testng-shard-" + (shard + 1) + ".xml");
+            Files.write(file, shardSuite.toXml().getBytes(StandardCharsets.UTF_8));
+            written.add(file);
+            logger.info("Shard {}/{}: {} tests, ~{} ms -> {}", shard + 1, shards, shardIds.size(),
+                    estimates.get(shard), file);
+        }
+        return written;
+    }
+
+    /**
+     * Identificadores clase.método de todos los &lt;test&gt; de la suite; es el conjunto que se reparte,
+     * tanto al generar los archivos como en ShardMethodInterceptor
+     */
+    public static Set<String> suiteTestIds(XmlSuite suite) {
+        Set<String> ids = new HashSet<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                for (String method : testMethods(xmlClass)) {
+                    ids.add(TestDurationHistory.testId(xmlClass.getSupportClass(), method));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static XmlSuite toShardSuite(XmlSuite suite, Set<String> shardIds, int shard, int shards) {
+        // shallowCopy conserva listeners, parámetros y paralelismo; la lista de tests es propia del shard
+        XmlSuite shardSuite = suite.shallowCopy();
+        shardSuite.setName(suite.getName() + " (shard " + (shard + 1) + "/" + shards + ")");
+        shardSuite.setTests(new ArrayList<>());
+
+        for (XmlTest test : suite.getTests()) {
+            XmlTest shardTest = new XmlTest(shardSuite);
+            shardTest.setName(test.getName());
+            shardTest.setParameters(test.getLocalParameters());
+            List<XmlClass> classes = new ArrayList<>();
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                List<XmlInclude> includes = new ArrayList<>();
+                for (String method : testMethods(xmlClass)) {
+                    if (shardIds.contains(TestDurationHistory.testId(xmlClass.getSupportClass(), method))) {
+                        includes.add(new XmlInclude(method));
+                    }
+                }
+                if (!includes.isEmpty()) {
+                    XmlClass shardClass = new XmlClass(xmlClass.getName(), false);
+                    shardClass.setIncludedMethods(includes);
+                    classes.add(shardClass);
+                }
+            }
+            shardTest.setXmlClasses(classes);
+        }
+        // Los <test> sin métodos en este shard se descartan
+        shardSuite.getTests().removeIf(test -> test.getXmlClasses().isEmpty());
+        return shardSuite;
+    }
+
+    /**
+     * Métodos de test de una clase: los incluidos explícitamente en la suite o, si no hay,
+     * los anotados con @Test (o públicos si la clase está anotada) sin los excluidos
+     */
+    private static List<String> testMethods(XmlClass xmlClass) {
+        if (!xmlClass.getIncludedMethods().isEmpty()) {
+            List<String> included = new ArrayList<>();
+            xmlClass.getIncludedMethods().forEach(include -> included.add(include.getName()));
+            return included;
+        }
+        Class<?> testClass = xmlClass.getSupportClass();
+        boolean classLevelTest = testClass.isAnnotationPresent(Test.class);
+        Set<String> methods = new LinkedHashSet<>();
+        for (Method method : testClass.getMethods()) {
+            boolean isTest = method.isAnnotationPresent(Test.class)
+                    || (classLevelTest && method.getDeclaringClass() == testClass && !Modifier.isStatic(method.getModifiers()));
+            if (isTest && !xmlClass.getExcludedMethods().contains(method.getName())) {
+                methods.add(method.getName());
+            }
+        }
+        return new ArrayList<>(methods);
+    }
+}
@@ -0,0 +1,185 @@
+package utils;
+
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.SystemEnvInfo;
+import com.aventstack.extentreports.model.Test;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resultados de un shard en formato JSONL (shard.results.enabled=true), para combinar después
+ * los de todas las JVM con {@link ReportMerger}. Cada línea es un registro independiente:
+ * - "run": cabecera con la ejecución, el shard y el host
+ * - "test": un test terminado con sus logs (estado, hora y HTML), nodos hijos, tiempos y
+ *   las referencias a screenshots que aparecen en sus logs
+ * - "end": información de sistema del reporte al cerrar la suite
+ *
+ * Los tests se escriben al completarse, así que el archivo sirve aunque la ejecución se corte.
+ * Cada test se escribe una sola vez: con retry.rerun.failed=true (y el reporte Spark) los que
+ * quedan fallidos se escriben al terminar el repaso final, con todos sus intentos.
+ */
+public class ShardResultsWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ShardResultsWriter.class);
+    public static final String RESULTS_DIR = "results";
+
+    // Atributos de ScreenshotUtils.buildImageHtml: id de la imagen, referencia a otra y rutas en modo file
+    private static final Pattern SCREENSHOT_ID = Pattern.compile("data-shot-(?:id|ref)='([^']+)'");
+    private static final Pattern SCREENSHOT_FILE = Pattern.compile("(?:src|data-full)='(" + ScreenshotStore.SCREENSHOTS_DIR + "/[^']+)'");
+
+    private final Path resultsPath;
+    private final BufferedWriter writer;
+    private final Json json = new Json();
+    private int tests;
+    private boolean closed = false;
+
+    public ShardResultsWriter(String resultsPath, String runTimestamp, int shardIndex, int shardTotal) throws IOException {
+        this.resultsPath = Paths.get(resultsPath);
+        Files.createDirectories(this.resultsPath.getParent());
+        this.writer = Files.newBufferedWriter(this.resultsPath, StandardCharsets.UTF_8);
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("type", "run");
+        header.put("run", runTimestamp);
+        header.put("shard", shardIndex);
+        header.put("shards", shardTotal);
+        header.put("host", hostName());
+        writeLine(header);
+    }
+
+    /**
+     * Copia un test terminado a un registro; llamar con el lock del reporte tomado
+     * para que el modelo no cambie mientras se lee
+     */
+    public static Map<String, Object> toRecord(Test test) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("type", "test");
+        record.putAll(testMap(test));
+        return record;
+    }
+
+    /**
+     * Añade un registro creado con {@link #toRecord(Test)}; la serialización ocurre aquí, fuera del lock del reporte
+     */
+    public synchronized void append(Map<String, Object> record) {
+        if (closed) {
+            return;
+        }
+        tests++;
+        try {
+            writeLine(record);
+        } catch (IOException e) {
+            logger.error("Error writing test '{}' to shard results: {}", record.get("name"), e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe la información de sistema y cierra el archivo
+     */
+    public synchronized void close(List<SystemEnvInfo> systemInfo) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Map<String, Object> info = new LinkedHashMap<>();
+        for (SystemEnvInfo entry : systemInfo) {
+            info.put(entry.getName(), entry.getValue());
+        }
+        Map<String, Object> end = new LinkedHashMap<>();
+        end.put("type", "end");
+        end.put("tests", tests);
+        end.put("systemInfo", info);
+        try {
+            writeLine(end);
+            writer.close();
+            logger.info("Shard results written to {}", resultsPath);
+        } catch (IOException e) {
+            logger.error("Error closing shard results: {}", e.getMessage());
+        }
+    }
+
+    public Path getResultsPath() {
+        return resultsPath;
+    }
+
+    private void writeLine(Map<String, Object> record) throws IOException {
+        json.newOutput(writer).setPrettyPrint(false).write(record);
+        writer.write("\n");
+        writer.flush();
+    }
+
+    private static Map<String, Object> testMap(Test test) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", test.getName());
+        map.put("description", test.getDescription());
+        map.put("status", test.getStatus().name());
+        map.put("start", test.getStartTime() != null ? test.getStartTime().getTime() : 0);
+        map.put("end", test.getEndTime() != null ? test.getEndTime().getTime() : 0);
+
+        List<Map<String, Object>> logs = new ArrayList<>();
+        for (Log log : test.getLogs()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("status", log.getStatus().name());
+            entry.put("timestamp", log.getTimestamp() != null ? log.getTimestamp().getTime() : 0);
+            entry.put("details", log.getDetails());
+            if (log.getException() != null) {
+                entry.put("exception", log.getException().getStackTrace());
+            }
+            List<String> screenshots = screenshotRefs(log.getDetails());
+            if (!screenshots.isEmpty()) {
+                entry.put("screenshots", screenshots);
+            }
+            logs.add(entry);
+        }
+        map.put("logs", logs);
+
+        List<Map<String, Object>> children = new ArrayList<>();
+        for (Test child : test.getChildren()) {
+            children.add(testMap(child));
+        }
+        map.put("children", children);
+        return map;
+    }
+
+    /**
+     * Ids de screenshot y, en modo file, rutas relativas al directorio del reporte
+     */
+    private static List<String> screenshotRefs(String details) {
+        Set<String> refs = new LinkedHashSet<>();
+        if (details != null && details.contains("data-shot-")) {
+            Matcher ids = SCREENSHOT_ID.matcher(details);
+            while (ids.find()) {
+                refs.add(ids.group(1));
+            }
+            Matcher files = SCREENSHOT_FILE.matcher(details);
+            while (files.find()) {
+                refs.add(files.group(1));
+            }
+        }
+        return new ArrayList<>(refs);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
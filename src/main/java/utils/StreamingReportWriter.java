@@ -0,0 +1,206 @@
+package utils;
+
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reporte HTML que se escribe de forma incremental: cada test terminado se serializa
+ * al archivo y se descarta del modelo en memoria, conservando solo un resumen ligero.
+ * El archivo es navegable en todo momento, por lo que si la ejecución se interrumpe
+ * queda un reporte parcial con los tests completados hasta ese punto.
+ */
+public class StreamingReportWriter {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingReportWriter.class);
+
+    private final Path reportPath;
+    private final BufferedWriter writer;
+    private final List<TestSummary> summaries = new ArrayList<>();
+    private final Map<Status, Integer> statusCounts = new EnumMap<>(Status.class);
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+    private boolean closed = false;
+
+    /**
+     * Datos mínimos de un test que se mantienen en memoria para el resumen final
+     */
+    public static class TestSummary {
+        public final String anchor;
+        public final String name;
+        public final Status status;
+        public final long durationMillis;
+
+        TestSummary(String anchor, String name, Status status, long durationMillis) {
+            this.anchor = anchor;
+            this.name = name;
+            this.status = status;
+            this.durationMillis = durationMillis;
+        }
+    }
+
+    public StreamingReportWriter(String reportPath, String title) throws IOException {
+        this.reportPath = Paths.get(reportPath);
+        Files.createDirectories(this.reportPath.getParent());
+        this.writer = Files.newBufferedWriter(this.reportPath, StandardCharsets.UTF_8);
+        writeHeader(title);
+    }
+
+    /**
+     * Serializa un test terminado (incluyendo sus nodos hijos) al final del reporte
+     */
+    public synchronized void append(Test test) {
+        if (closed) {
+            return;
+        }
+        String anchor = "test-" + (summaries.size() + 1);
+        Status status = test.getStatus();
+        summaries.add(new TestSummary(anchor, test.getName(), status, test.timeTaken()));
+        statusCounts.merge(status, 1, Integer::sum);
+
+        try {
+            StringBuilder html = new StringBuilder();
+            html.append("<section class='test ").append(statusClass(status)).append("' id='").append(anchor).append("'>");
+            appendTest(html, test);
+            html.append("</section>\n");
+            writer.write(html.toString());
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Error writing test '{}' to streaming report: {}", test.getName(), e.getMessage());
+        }
+    }
+
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Error flushing streaming report: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe el resumen final y cierra el archivo
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.write(buildSummary());
+            writer.write("<script>var s=document.getElementById('summary-final');"
+                    + "document.getElementById('summary').appendChild(s);s.style.display='block';</script>\n");
+            writer.write("</main></body></html>\n");
+            writer.close();
+            logger.info("Streaming report written to {}", reportPath);
+        } catch (IOException e) {
+            logger.error("Error closing streaming report: {}", e.getMessage());
+        }
+    }
+
+    public synchronized List<TestSummary> getSummaries() {
+        return new ArrayList<>(summaries);
+    }
+
+    public Path getReportPath() {
+        return reportPath;
+    }
+
+    private void writeHeader(String title) throws IOException {
+        writer.write("<!DOCTYPE html><html><head><meta charset='UTF-8'><title>" + escape(title) + "</title>"
+                + "<style>"
+                + "body{font-family:Arial,sans-serif;background:#1e1e2f;color:#ddd;margin:0;}"
+                + "main{max-width:1100px;margin:0 auto;padding:20px;}"
+                + "section.test{background:#27293d;border-radius:8px;margin:12px 0;padding:12px 16px;border-left:6px solid #888;}"
+                + "section.pass{border-left-color:#4CAF50;}section.fail{border-left-color:#ff4444;}"
+                + "section.skip{border-left-color:#FFA726;}section.warning{border-left-color:#FFA726;}"
+                + "section.node{margin-left:16px;}"
+                + "h2,h3{margin:4px 0;}.meta{color:#999;font-size:12px;}"
+                + "table{width:100%;border-collapse:collapse;}td,th{padding:4px 8px;border-bottom:1px solid #3a3c55;text-align:left;vertical-align:top;}"
+                + ".st-pass{color:#4CAF50;}.st-fail{color:#ff4444;}.st-skip,.st-warning{color:#FFA726;}"
+                + "a{color:#8fb3ff;}"
+                + "</style></head><body><main>"
+                + "<h1>" + escape(title) + "</h1><div id='summary'></div>\n");
+        writer.flush();
+    }
+
+    private void appendTest(StringBuilder html, Test test) {
+        String heading = test.getLevel() != null && test.getLevel() > 0 ? "h3" : "h2";
+        html.append("<").append(heading).append(">").append(escape(test.getName()))
+                .append(" <span class='").append(statusLabelClass(test.getStatus())).append("'>")
+                .append(test.getStatus()).append("</span></").append(heading).append(">");
+        html.append("<div class='meta'>");
+        if (test.getDescription() != null) {
+            html.append(escape(test.getDescription())).append(" · ");
+        }
+        html.append(test.timeTakenPretty()).append("</div>");
+
+        if (!test.getLogs().isEmpty()) {
+            html.append("<table><tr><th>Status</th><th>Time</th><th>Details</th></tr>");
+            for (Log log : test.getLogs()) {
+                html.append("<tr><td class='").append(statusLabelClass(log.getStatus())).append("'>")
+                        .append(log.getStatus()).append("</td><td>")
+                        .append(timeFormat.format(log.getTimestamp())).append("</td><td>")
+                        .append(log.getDetails() == null ? "" : log.getDetails());
+                if (log.getException() != null) {
+                    html.append("<pre>").append(escape(log.getException().getStackTrace())).append("</pre>");
+                }
+                html.append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        for (Test child : test.getChildren()) {
+            html.append("<section class='test node ").append(statusClass(child.getStatus())).append("'>");
+            appendTest(html, child);
+            html.append("</section>");
+        }
+    }
+
+    private String buildSummary() {
+        StringBuilder html = new StringBuilder();
+        html.append("<div id='summary-final' style='display:none'><p>");
+        for (Map.Entry<Status, Integer> entry : statusCounts.entrySet()) {
+            html.append("<span class='").append(statusLabelClass(entry.getKey())).append("'>")
+                    .append(entry.getKey()).append(": ").append(entry.getValue()).append("</span> &nbsp; ");
+        }
+        html.append("</p><table><tr><th>Test</th><th>Status</th><th>Duration</th></tr>");
+        for (TestSummary summary : summaries) {
+            html.append("<tr><td><a href='#").append(summary.anchor).append("'>").append(escape(summary.name))
+                    .append("</a></td><td class='").append(statusLabelClass(summary.status)).append("'>")
+                    .append(summary.status).append("</td><td>").append(summary.durationMillis).append(" ms</td></tr>");
+        }
+        html.append("</table></div>\n");
+        return html.toString();
+    }
+
+    private static String statusClass(Status status) {
+        return status == null ? "" : status.name().toLowerCase();
+    }
+
+    private static String statusLabelClass(Status status) {
+        return "st-" + statusClass(status);
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+    }
+}
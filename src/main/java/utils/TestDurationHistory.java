@@ -0,0 +1,140 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historial de duraciones por test (clase.método -&gt; ms) usado para repartir los tests en shards.
+ * Se guarda en shard.history.file como properties ordenadas, así que se puede versionar o
+ * cachear entre ejecuciones de CI. Cada ejecución suaviza el valor previo
+ * (media móvil exponencial) para que un test lento puntual no desequilibre los shards.
+ * Al guardar se releen y combinan los valores del archivo con un bloqueo de archivo
+ * (&lt;archivo&gt;.lock), de modo que varias JVM que comparten el archivo no se pisan entre sí;
+ * el archivo se reemplaza de forma atómica, así que quien lo lee nunca ve uno a medio escribir.
+ */
+public class TestDurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(TestDurationHistory.class);
+    private static final double SMOOTHING = 0.5;
+
+    private static final Map<String, Long> currentRun = new ConcurrentHashMap<>();
+
+    /**
+     * Identificador estable de un método de test, también usado por el planificador de shards
+     */
+    public static String testId(Class<?> testClass, String methodName) {
+        return testClass.getName() + "." + methodName;
+    }
+
+    /**
+     * Acumula la duración de un test terminado (las invocaciones con data provider se suman)
+     */
+    public static void record(ITestResult result) {
+        long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        String id = testId(result.getTestClass().getRealClass(), result.getMethod().getMethodName());
+        currentRun.merge(id, duration, Long::sum);
+    }
+
+    /**
+     * Duraciones conocidas (en ms) leídas del archivo de historial
+     */
+    public static Map<String, Long> load() {
+        Map<String, Long> durations = new HashMap<>();
+        Path path = getHistoryPath();
+        if (!Files.exists(path)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("Error reading test duration history {}: {}", path, e.getMessage());
+            return durations;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid duration for {} in {}", key, path);
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Combina las duraciones registradas desde el último guardado con el historial y lo reescribe
+     */
+    public static synchronized void save() {
+        if (currentRun.isEmpty()) {
+            return;
+        }
+        Path path = getHistoryPath();
+        Path lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        // El lock de archivo excluye a otras JVM; dentro de esta JVM ya lo hace synchronized
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            int tests = merge(path);
+            logger.info("Test duration history updated: {} tests in {}", tests, path);
+        } catch (IOException e) {
+            logger.warn("Error writing test duration history {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Lee, combina y reescribe el historial; llamar con el lock de archivo tomado
+     *
+     * @return Tests en el historial resultante
+     */
+    private static int merge(Path path) throws IOException {
+        Map<String, Long> merged = new TreeMap<>(load());
+        // Se retiran los valores guardados para no suavizarlos dos veces si se vuelve a guardar
+        for (String id : currentRun.keySet()) {
+            Long duration = currentRun.remove(id);
+            if (duration == null) {
+                continue;
+            }
+            Long previous = merged.get(id);
+            merged.put(id, previous == null ? duration : Math.round(previous * (1 - SMOOTHING) + duration * SMOOTHING));
+        }
+
+        // Orden estable para que el archivo sea fácil de revisar en un diff
+        StringBuilder content = new StringBuilder("# Duración por test en ms (clase.método=ms), usada por el sharding\n");
+        for (Map.Entry<String, Long> entry : merged.entrySet()) {
+            content.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        // Se escribe aparte y se renombra: un load() concurrente ve el archivo anterior o el nuevo, nunca uno truncado
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content.toString().getBytes(StandardCharsets.ISO_8859_1));
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return merged.size();
+    }
+
+    public static Path getHistoryPath() {
+        return Paths.get(System.getProperty("user.dir")).resolve(ConfigReader.getShardHistoryFile());
+    }
+}
@@ -0,0 +1,149 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ReportMergerTest {
+    private static final long START = 1_700_000_000_000L;
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("report-merger");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test(description = "El registro de un test guarda estado, tiempos, logs e intentos como nodos hijos")
+    public void recordKeepsAttemptsStatusesAndTimestamps() {
+        Map<String, Object> record = ShardResultsWriter.toRecord(retriedTest(new ExtentReports()).getModel());
+
+        Assert.assertEquals(record.get("type"), "test");
+        Assert.assertEquals(record.get("name"), "LoginTest.login");
+        Assert.assertEquals(record.get("start"), START);
+        Assert.assertEquals(record.get("end"), START + 65_000);
+        List<?> children = (List<?>) record.get("children");
+        Assert.assertEquals(children.size(), 2);
+        Map<?, ?> first = (Map<?, ?>) children.get(0);
+        Assert.assertEquals(first.get("name"), "Attempt 1");
+        Assert.assertEquals(first.get("status"), "WARNING");
+        Map<?, ?> firstLog = (Map<?, ?>) ((List<?>) first.get("logs")).get(0);
+        Assert.assertEquals(firstLog.get("status"), "FAIL");
+        Assert.assertEquals(firstLog.get("timestamp"), START + 1_000);
+        Assert.assertEquals(((Map<?, ?>) children.get(1)).get("status"), "PASS");
+    }
+
+    @Test(description = "--streaming reconstruye intentos, estado WARNING explícito y horas, y salta la última línea truncada")
+    public void streamingMergeRoundTripsRecordsAndSkipsTruncatedLine() throws IOException {
+        writeShards();
+        Path output = directory.resolve("merged-streaming.html");
+
+        ReportMerger.main(new String[]{"--streaming", output.toString(), directory.resolve("results").toString()});
+
+        String html = new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+        // El intento reintentado tiene un log FAIL, pero conserva su estado WARNING
+        Assert.assertTrue(html.contains("<h3>Attempt 1 <span class='st-warning'>Warning</span></h3>"), html);
+        Assert.assertTrue(html.contains("<h3>Attempt 2 <span class='st-pass'>Pass</span></h3>"), html);
+        Assert.assertTrue(html.contains("<h2>SearchTest.search <span class='st-pass'>Pass</span></h2>"), html);
+        Assert.assertTrue(html.contains(">" + time(START + 1_000) + "</td><td>Assertion failed"), html);
+        Assert.assertTrue(html.contains(retriedTest(new ExtentReports()).getModel().timeTakenPretty()), html);
+        Assert.assertFalse(html.contains("Truncated"), html);
+    }
+
+    @Test(description = "El reporte Spark combina los tests de todos los shards y salta la última línea truncada")
+    public void sparkMergeCountsTestsOfEveryShard() throws IOException {
+        writeShards();
+        Path output = directory.resolve("merged.html");
+
+        int tests = ReportMerger.merge(ReportMerger.resolveInputs(Collections.singletonList(directory.resolve("results"))),
+                output, false);
+
+        Assert.assertEquals(tests, 2);
+        String html = new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+        Assert.assertTrue(html.contains("LoginTest.login"));
+        Assert.assertTrue(html.contains("SearchTest.search"));
+        Assert.assertFalse(html.contains("Truncated"));
+    }
+
+    /**
+     * Dos shards; el segundo termina con una línea a medias, como un shard interrumpido
+     */
+    private void writeShards() throws IOException {
+        ExtentReports extent = new ExtentReports();
+        Path results = directory.resolve("results");
+
+        ShardResultsWriter first = new ShardResultsWriter(results.resolve("shard-1.jsonl").toString(), "run", 0, 2);
+        first.append(ShardResultsWriter.toRecord(retriedTest(extent).getModel()));
+        first.close(Collections.emptyList());
+
+        ExtentTest search = extent.createTest("SearchTest.search");
+        log(search, Status.PASS, "Results shown", START + 2_000);
+        times(search, START, START + 3_000);
+        ShardResultsWriter second = new ShardResultsWriter(results.resolve("shard-2.jsonl").toString(), "run", 1, 2);
+        second.append(ShardResultsWriter.toRecord(search.getModel()));
+        second.close(Collections.emptyList());
+        Files.write(results.resolve("shard-2.jsonl"), "{\"type\":\"test\",\"name\":\"Truncated".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Test con dos intentos, como los crea ExtentManager con reintentos: el primero falla y queda en WARNING
+     */
+    private static ExtentTest retriedTest(ExtentReports extent) {
+        ExtentTest test = extent.createTest("LoginTest.login", "Login con usuario válido");
+        ExtentTest firstAttempt = test.createNode("Attempt 1");
+        log(firstAttempt, Status.FAIL, "Assertion failed", START + 1_000);
+        log(firstAttempt, Status.WARNING, "Attempt failed, retrying: Assertion failed", START + 1_500);
+        firstAttempt.getModel().setStatus(Status.WARNING);
+        times(firstAttempt, START, START + 2_000);
+        ExtentTest secondAttempt = test.createNode("Attempt 2");
+        log(secondAttempt, Status.PASS, "Login correcto", START + 64_000);
+        times(secondAttempt, START + 2_000, START + 65_000);
+        test.getModel().setStatus(Status.PASS);
+        times(test, START, START + 65_000);
+        return test;
+    }
+
+    private static void log(ExtentTest test, Status status, String details, long timestamp) {
+        test.log(status, details);
+        List<Log> logs = test.getModel().getLogs();
+        logs.get(logs.size() - 1).setTimestamp(new Date(timestamp));
+    }
+
+    private static void times(ExtentTest test, long start, long end) {
+        test.getModel().setStartTime(new Date(start));
+        test.getModel().setEndTime(new Date(end));
+    }
+
+    private static String time(long millis) {
+        return new SimpleDateFormat("HH:mm:ss").format(new Date(millis));
+    }
+}
@@ -0,0 +1,75 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+
+public class ScreenshotSimilarityTest {
+
+    @Test(description = "Un degradado que se oscurece hacia la derecha pone todos los bits del dHash a 1")
+    public void hashesDarkeningGradientAsAllOnes() {
+        long[] hash = ScreenshotSimilarity.dHash(gradient(90, 80, true), 8);
+
+        Assert.assertEquals(hash.length, 1);
+        Assert.assertEquals(hash[0], -1L);
+    }
+
+    @Test(description = "Un degradado inverso da el hash complementario, a distancia size x size")
+    public void oppositeGradientsAreAtMaximumDistance() {
+        long[] darkening = ScreenshotSimilarity.dHash(gradient(90, 80, true), 8);
+        long[] brightening = ScreenshotSimilarity.dHash(gradient(90, 80, false), 8);
+
+        Assert.assertEquals(brightening[0], 0L);
+        Assert.assertEquals(ScreenshotSimilarity.distance(darkening, brightening), 64);
+    }
+
+    @Test(description = "Cambiar unos pocos píxeles apenas mueve el hash")
+    public void smallChangesKeepTheHashClose() {
+        BufferedImage image = gradient(180, 160, true);
+        long[] before = ScreenshotSimilarity.dHash(image, 8);
+        for (int x = 100; x < 103; x++) {
+            image.setRGB(x, 50, 0xff0000);
+        }
+        long[] after = ScreenshotSimilarity.dHash(image, 8);
+
+        Assert.assertTrue(ScreenshotSimilarity.distance(before, after) <= 2);
+    }
+
+    @Test(description = "Un color uniforme no tiene diferencias entre celdas: hash vacío")
+    public void uniformImageHashesToZero() {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+
+        Assert.assertEquals(ScreenshotSimilarity.dHash(image, 8)[0], 0L);
+    }
+
+    @Test(description = "Los hashes de más de 64 bits ocupan varios long")
+    public void largeHashSizesSpanSeveralWords() {
+        long[] hash = ScreenshotSimilarity.dHash(gradient(200, 120, true), 9);
+
+        Assert.assertEquals(hash.length, 2);
+        Assert.assertEquals(Long.bitCount(hash[0]) + Long.bitCount(hash[1]), 81);
+    }
+
+    @Test(description = "Hashes de distinto tamaño no se consideran parecidos")
+    public void differentHashSizesAreNeverSimilar() {
+        Assert.assertEquals(ScreenshotSimilarity.distance(new long[1], new long[2]), Integer.MAX_VALUE);
+        Assert.assertEquals(ScreenshotSimilarity.distance(new long[] { 0b1011L }, new long[] { 0b0001L }), 2);
+    }
+
+    /**
+     * Degradado horizontal en gris de blanco a negro (o al revés)
+     */
+    private static BufferedImage gradient(int width, int height, boolean darkening) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            int level = 255 * x / (width - 1);
+            int gray = darkening ? 255 - level : level;
+            int rgb = (gray << 16) | (gray << 8) | gray;
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,80 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShardPlannerTest {
+
+    @Test(description = "Los tests con historial se reparten del más largo al shard con menos carga")
+    public void plansKnownDurationsLongestFirst() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("A.a", 100L);
+        durations.put("A.b", 90L);
+        durations.put("A.c", 50L);
+        durations.put("A.d", 40L);
+
+        List<List<String>> plan = ShardPlanner.plan(durations.keySet(), durations, 2);
+
+        Assert.assertEquals(plan.get(0), Arrays.asList("A.a", "A.d"));
+        Assert.assertEquals(plan.get(1), Arrays.asList("A.b", "A.c"));
+        Assert.assertEquals(ShardPlanner.estimate(plan, durations), Arrays.asList(140L, 140L));
+    }
+
+    @Test(description = "Los tests sin historial se reparten en round-robin empezando por el shard con menos carga")
+    public void plansUnknownTestsRoundRobinFromLeastLoaded() {
+        Map<String, Long> durations = Collections.singletonMap("A.slow", 500L);
+
+        List<List<String>> plan = ShardPlanner.plan(Arrays.asList("A.slow", "B.x", "B.y", "B.z"), durations, 3);
+
+        Assert.assertEquals(plan.get(0), Arrays.asList("A.slow", "B.z"));
+        Assert.assertEquals(plan.get(1), Collections.singletonList("B.x"));
+        Assert.assertEquals(plan.get(2), Collections.singletonList("B.y"));
+    }
+
+    @Test(description = "El reparto no depende del orden de entrada y cada test queda en un solo shard")
+    public void planIsDeterministicAndComplete() {
+        Map<String, Long> durations = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String id = "C.test" + i;
+            ids.add(id);
+            if (i % 3 != 0) {
+                durations.put(id, (long) (i * 37 % 11) * 100);
+            }
+        }
+        List<String> reversed = new ArrayList<>(ids);
+        Collections.reverse(reversed);
+
+        List<List<String>> plan = ShardPlanner.plan(ids, durations, 4);
+
+        Assert.assertEquals(ShardPlanner.plan(reversed, durations, 4), plan);
+        List<String> assigned = new ArrayList<>();
+        plan.forEach(assigned::addAll);
+        Collections.sort(assigned);
+        List<String> expected = new ArrayList<>(ids);
+        Collections.sort(expected);
+        Assert.assertEquals(assigned, expected);
+    }
+
+    @Test(description = "Con más shards que tests sobran shards vacíos")
+    public void plansFewerTestsThanShards() {
+        List<List<String>> plan = ShardPlanner.plan(Collections.singletonList("D.only"), Collections.emptyMap(), 3);
+
+        Assert.assertEquals(plan.size(), 3);
+        Assert.assertEquals(plan.get(0), Collections.singletonList("D.only"));
+        Assert.assertTrue(plan.get(1).isEmpty());
+        Assert.assertTrue(plan.get(2).isEmpty());
+    }
+
+    @Test(description = "El número de shards debe ser al menos 1", expectedExceptions = IllegalArgumentException.class)
+    public void rejectsZeroShards() {
+        ShardPlanner.plan(Collections.singletonList("E.x"), Collections.emptyMap(), 0);
+    }
+}